@@ -0,0 +1,120 @@
+import javafx.geometry.Point2D;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This class sets up the map the benchmarks run on, either one of the maps of the game or a generated grid,
+ * without loading any image.
+ */
+public class BenchmarkWorld {
+    private static final String GRID_PREFIX = "grid";
+    private static final String DENSITY_SEPARATOR = "-";
+    private static final double DEFAULT_DENSITY = 0.25;
+
+    /**
+     * Loads a map of the game, or generates a grid if the name is "grid" followed by its size and the share of
+     * its cells that are walls, e.g. "grid1024-0.25". Any previous map is destroyed.
+     *
+     * @param name name of a map in the maps folder, or of a grid.
+     * @param seed seed of the walls of a grid.
+     * @return the map.
+     */
+    public static Map load(String name, long seed) {
+        AssetRegistry.getInstance().setHeadless(true);
+        if (name.startsWith(GRID_PREFIX)) {
+            String[] grid = name.substring(GRID_PREFIX.length()).split(DENSITY_SEPARATOR);
+            int size = Integer.parseInt(grid[0]);
+            double density = grid.length > 1 ? Double.parseDouble(grid[1]) : DEFAULT_DENSITY;
+            return generateGrid(size, density, seed);
+        }
+        return FileReader.readMap(name);
+    }
+
+    /**
+     * Generates a square grid surrounded by walls, with walls scattered inside it. The cells of a kind share
+     * a single object, so even the largest grids fit in memory.
+     *
+     * @param size    number of cells on a side of the grid.
+     * @param density share of the cells inside the border that are walls, between 0 and 1.
+     * @param seed    seed of the walls.
+     * @return the map.
+     */
+    public static Map generateGrid(int size, double density, long seed) {
+        Map.destroyInstance();
+        Map map = Map.getInstance();
+        map.setMapName(GRID_PREFIX + size);
+        Random random = new Random(seed);
+        Cell ground = new Ground();
+        Cell wall = new Wall();
+        Cell[][] cells = new Cell[size][size];
+
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                boolean isBorder = x == 0 || y == 0 || x == size - 1 || y == size - 1;
+                cells[y][x] = isBorder || random.nextDouble() < density ? wall : ground;
+            }
+        }
+        map.setCellArray(cells);
+        map.getPlayer().setPosition(findGround(map, random));
+        return map;
+    }
+
+    /**
+     * Finds a random ground cell of a map.
+     *
+     * @param map    the map.
+     * @param random source of the positions tried.
+     * @return the position of the cell, or (0, 0) if none was found.
+     */
+    public static Point2D findGround(Map map, Random random) {
+        Cell[][] cells = map.getCellArray();
+        for (int i = 0; i < cells.length * cells[0].length; i++) {
+            int x = random.nextInt(cells[0].length);
+            int y = random.nextInt(cells.length);
+            if (cells[y][x].getClass() == Ground.class) {
+                return new Point2D(x, y);
+            }
+        }
+        return new Point2D(0, 0);
+    }
+
+    /**
+     * Finds random ground cells of a map, the same cell may be found more than once.
+     *
+     * @param map    the map.
+     * @param count  number of cells to find.
+     * @param random source of the positions tried.
+     * @return the positions of the cells.
+     */
+    public static ArrayList<Point2D> findGround(Map map, int count, Random random) {
+        ArrayList<Point2D> positions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            positions.add(findGround(map, random));
+        }
+        return positions;
+    }
+
+    /**
+     * Creates an enemy of a type, written as in the map files.
+     *
+     * @param type     SL, WF, DT or ST.
+     * @param position position of the enemy.
+     * @param random   source of the direction of the enemies that need one.
+     * @return the enemy.
+     */
+    public static Enemy createEnemy(String type, Point2D position, Random random) {
+        String[] directions = {"U", "D", "L", "R"};
+        String direction = directions[random.nextInt(directions.length)];
+        switch (type) {
+            case "SL":
+                return new StraightLineEnemy(position, direction);
+            case "WF":
+                return new WallFollowingEnemy(position, direction);
+            case "DT":
+                return new DumbTargetingEnemy(position);
+            default:
+                return new SmartTargetingEnemy(position);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+import javafx.geometry.Point2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long the enemies take to decide their next move, on the maps of the game and on generated grids
+ * from 32x32 to 4096x4096 cells with several wall densities.
+ * <p>
+ * Each invocation is one turn: the player steps to the next of a long list of random ground cells, then every
+ * enemy works out its move. The list is long enough for the path cache of the map to miss, so the smart enemies
+ * really search. The smart enemy is measured with each of its search modes. The wall density is part of the name
+ * of a grid, e.g. "grid1024-0.25", so the maps of the game are only measured once.
+ * <p>
+ * The benchmarks are compiled and run apart from the game, from the root of the project so the maps folder is
+ * found, with jmh-core, jmh-generator-annprocess and JavaFX on the class path:
+ * <pre>
+ * javac -cp out:jmh.jar:javafx.jar -d bench-out bench/*.java
+ * java -cp bench-out:out:jmh.jar:javafx.jar EnemyMoveBenchmark
+ * </pre>
+ * The main method runs every case with the GC profiler, so the allocation rate is reported next to the
+ * throughput and the latency percentiles. The usual JMH options also work through org.openjdk.jmh.Main, e.g.
+ * "-p map=grid1024-0.25 -p enemyType=ST-JPS -prof gc".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class EnemyMoveBenchmark {
+    private static final int ENEMY_COUNT = 32;
+    //More player positions than the path cache can hold results for all the enemies.
+    private static final int PLAYER_POSITIONS = 1024;
+    private static final long SEED = 42;
+
+    //The grids are named after their size and the share of their cells that are walls.
+    @Param({"map1", "map10", "map11", "map12", "map13", "map14",
+            "grid32-0.1", "grid32-0.25", "grid32-0.4", "grid256-0.1", "grid256-0.25", "grid256-0.4",
+            "grid1024-0.1", "grid1024-0.25", "grid1024-0.4", "grid4096-0.1", "grid4096-0.25", "grid4096-0.4"})
+    private String map;
+
+    @Param({"SL", "WF", "DT", "ST", "ST-AStar", "ST-JPS", "ST-HPA"})
+    private String enemyType;
+
+    private Player player;
+    private ArrayList<Enemy> enemies;
+    private ArrayList<Point2D> playerPositions;
+    private int turn;
+
+    /**
+     * Runs every benchmark with the GC profiler.
+     *
+     * @param args not used.
+     * @throws RunnerException if a benchmark fails.
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(EnemyMoveBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Loads the map and places the enemies on random ground cells. The enemies of the map file are left out,
+     * so every case moves the same number of enemies of a single type.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(SEED);
+        Map world = BenchmarkWorld.load(map, SEED);
+        world.setSearchMode(getSearchMode());
+        player = world.getPlayer();
+        playerPositions = BenchmarkWorld.findGround(world, PLAYER_POSITIONS, random);
+
+        enemies = new ArrayList<>();
+        String type = enemyType.startsWith("ST") ? "ST" : enemyType;
+        for (Point2D position : BenchmarkWorld.findGround(world, ENEMY_COUNT, random)) {
+            enemies.add(BenchmarkWorld.createEnemy(type, position, random));
+        }
+        turn = 0;
+    }
+
+    /**
+     * Moves the player and works out the next move of every enemy.
+     *
+     * @param blackhole receives the moves.
+     */
+    @Benchmark
+    public void nextMove(Blackhole blackhole) {
+        player.setPosition(playerPositions.get(turn));
+        turn = (turn + 1) % playerPositions.size();
+        for (Enemy enemy : enemies) {
+            blackhole.consume(enemy.getNextMove());
+        }
+    }
+
+    /**
+     * Gets the search mode of the map from the enemy type.
+     *
+     * @return the search mode of the smart enemies.
+     */
+    private int getSearchMode() {
+        switch (enemyType) {
+            case "ST-AStar":
+                return SmartTargetingEnemy.A_STAR;
+            case "ST-JPS":
+                return SmartTargetingEnemy.JUMP_POINT;
+            case "ST-HPA":
+                return SmartTargetingEnemy.HIERARCHICAL;
+            default:
+                return SmartTargetingEnemy.FLOW_FIELD;
+        }
+    }
+}
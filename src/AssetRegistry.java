@@ -0,0 +1,161 @@
+import javafx.scene.image.Image;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.util.HashMap;
+
+/**
+ * This Class models a registry of art assets. Every image is decoded from disk once and the same
+ * Image object is handed to every Cell, Item and Enemy that asks for it.
+ */
+public class AssetRegistry {
+    private static final int BYTES_PER_PIXEL = 4;
+    private static AssetRegistry instance;
+    private HashMap<String, Image> images;
+    private TextureAtlas atlas;
+    private int atlasSize;
+    private long memoryUsage;
+    private int hits;
+    private int misses;
+    private boolean isHeadless;
+
+    /**
+     * Retrieves the singleton instance of the registry.
+     *
+     * @return Singleton instance of AssetRegistry.
+     */
+    public static AssetRegistry getInstance() {
+        if (instance == null) {
+            instance = new AssetRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Constructor.
+     */
+    private AssetRegistry() {
+        images = new HashMap<>();
+        memoryUsage = 0;
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Retrieves the image stored at the given path, decoding it only the first time it is requested.
+     * A path that could not be read is remembered as well, so it is only reported once.
+     *
+     * @param filePath path of the image file.
+     * @return Shared Image object, or null if the file could not be read or the registry is headless.
+     */
+    public synchronized Image getImage(String filePath) {
+        if (isHeadless) {
+            return null;
+        }
+        if (images.containsKey(filePath)) {
+            hits++;
+            return images.get(filePath);
+        }
+        misses++;
+
+        Image image = null;
+        try {
+            image = new Image(new FileInputStream(filePath));
+            memoryUsage += (long) image.getWidth() * (long) image.getHeight() * BYTES_PER_PIXEL;
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        }
+        images.put(filePath, image);
+        return image;
+    }
+
+    /**
+     * Stops the registry from decoding images, every request is answered with null. Used to run the game
+     * without JavaFX, it has to be set before the map is loaded.
+     *
+     * @param isHeadless true to stop decoding images.
+     */
+    public synchronized void setHeadless(boolean isHeadless) {
+        this.isHeadless = isHeadless;
+    }
+
+    /**
+     * Checks if the registry decodes images.
+     *
+     * @return True if images are not decoded, else False.
+     */
+    public synchronized boolean isHeadless() {
+        return isHeadless;
+    }
+
+    /**
+     * Retrieves a texture atlas holding every image decoded so far.
+     * The atlas is packed again only if new images were decoded since it was last packed.
+     *
+     * @return the texture atlas.
+     */
+    public synchronized TextureAtlas getAtlas() {
+        if (atlas == null || atlasSize != images.size()) {
+            atlas = new TextureAtlas(images);
+            atlasSize = images.size();
+        }
+        return atlas;
+    }
+
+    /**
+     * Retrieves the number of decoded images currently held by the registry.
+     *
+     * @return number of images.
+     */
+    public synchronized int getImageCount() {
+        return images.size();
+    }
+
+    /**
+     * Retrieves an estimate of the memory taken by the decoded images, assuming 32 bits per pixel.
+     *
+     * @return memory used in bytes.
+     */
+    public synchronized long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    /**
+     * Retrieves the number of requests that were served from the registry.
+     *
+     * @return number of hits.
+     */
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    /**
+     * Retrieves the number of requests that had to decode an image.
+     *
+     * @return number of misses.
+     */
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Drops every decoded image and resets the statistics.
+     */
+    public synchronized void clear() {
+        images.clear();
+        atlas = null;
+        memoryUsage = 0;
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Converts the statistics of the registry to a String.
+     *
+     * @return String instance.
+     */
+    @Override
+    public synchronized String toString() {
+        return "Assets " + images.size() + " images " + (memoryUsage / 1024) + " KB hits " + hits + " misses " + misses;
+    }
+}
@@ -0,0 +1,86 @@
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+
+/**
+ * This class models the place of a sprite inside a page of the texture atlas.
+ */
+public class AtlasRegion {
+    private Image page;
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+    private Rectangle2D viewport;
+
+    /**
+     * Constructor.
+     *
+     * @param page   atlas page holding the sprite.
+     * @param x      x coordinate of the sprite on the page.
+     * @param y      y coordinate of the sprite on the page.
+     * @param width  width of the sprite.
+     * @param height height of the sprite.
+     */
+    public AtlasRegion(Image page, int x, int y, int width, int height) {
+        this.page = page;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.viewport = new Rectangle2D(x, y, width, height);
+    }
+
+    /**
+     * Retrieves the atlas page holding the sprite.
+     *
+     * @return the page.
+     */
+    public Image getPage() {
+        return page;
+    }
+
+    /**
+     * Retrieves the x coordinate of the sprite on the page.
+     *
+     * @return x coordinate.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Retrieves the y coordinate of the sprite on the page.
+     *
+     * @return y coordinate.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Retrieves the width of the sprite.
+     *
+     * @return width in pixels.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Retrieves the height of the sprite.
+     *
+     * @return height in pixels.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Retrieves the source rectangle of the sprite, as used by an ImageView.
+     *
+     * @return the viewport.
+     */
+    public Rectangle2D getViewport() {
+        return viewport;
+    }
+}
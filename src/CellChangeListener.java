@@ -0,0 +1,13 @@
+/**
+ * This interface is notified when a cell of the map is replaced, e.g. when a door is opened.
+ */
+public interface CellChangeListener {
+
+    /**
+     * Called after a cell of the map was replaced.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     */
+    void cellChanged(int x, int y);
+}
@@ -0,0 +1,662 @@
+import java.util.Arrays;
+
+/**
+ * This class searches paths for the enemies on large maps with hierarchical pathfinding (HPA*).
+ * <p>
+ * The map is cut into square clusters. Where the ground of two neighbouring clusters touches, an entrance is
+ * made of a cell on each side, and the distances between the entrances of a cluster are worked out once. A path
+ * is then searched on the graph of entrances, which has far fewer nodes than the map, and only the part of the
+ * path inside the cluster of the start is searched cell by cell. The paths are close to the shortest ones, not
+ * always the shortest.
+ * <p>
+ * When a cell is replaced, e.g. a door is opened, only the clusters that can see the cell are worked out again,
+ * the next time a path is asked for. Searches from enemies working out their moves in parallel take turns.
+ */
+public class ClusterGraph {
+    public static final int CLUSTER_SIZE = 16;
+    private static final int STRAIGHT_COST = 10;
+    private static final int DIAGONAL_COST = 14;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+    //An entrance at least this wide gets a node at both ends instead of one in the middle.
+    private static final int WIDE_ENTRANCE = 6;
+    //A cluster has at most one node for each cell of its edges.
+    private static final int NODES_PER_CLUSTER = 4 * CLUSTER_SIZE;
+    //The eight directions a step can take.
+    private static final int[] DIRECTION_X = {0, -1, 1, 0, -1, 1, -1, 1};
+    private static final int[] DIRECTION_Y = {-1, 0, 0, 1, -1, -1, 1, 1};
+    private Map map;
+    private WalkabilityMap walkability;
+    private int width;
+    private int height;
+    private int clustersX;
+    private int clustersY;
+    private int[][] clusterNodes; //The cells of the nodes of every cluster.
+    private int[][] clusterLinks; //For every cluster, (node, cell in the other cluster, cost) for each entrance.
+    private int[][] clusterCosts; //For every cluster, the distance between each pair of its nodes.
+    private boolean[] isDirty;
+    private int[] dirtyClusters;
+    private int dirtyCount;
+    //Reused while building a cluster.
+    private int[] buildNodes;
+    private int buildNodeCount;
+    private int[] buildLinks;
+    private int buildLinkCount;
+    //The searches inside a single cluster.
+    private IndexedMinHeap localOpen;
+    private int[] localDistances;
+    private int[] startDistances;
+    private int[] startParents;
+    private int[] goalDistances;
+    //The search on the graph of entrances, the last key is the goal.
+    private IndexedMinHeap open;
+    private int[] costs;
+    private int[] parents;
+    private int[] seen;
+    private int[] closed;
+    private int generation;
+    private int goalCell;
+    private int pathCost;
+    private int searches;
+    private long expandedNodes;
+    private int builtClusters;
+
+    /**
+     * Creates the cluster graph of a map. Nothing is built until build is called or a path is asked for.
+     *
+     * @param map the map the graph is built on.
+     */
+    public ClusterGraph(Map map) {
+        this.map = map;
+        localOpen = new IndexedMinHeap(CLUSTER_SIZE * CLUSTER_SIZE);
+        localDistances = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+        startDistances = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+        startParents = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+        goalDistances = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+        buildNodes = new int[NODES_PER_CLUSTER];
+        buildLinks = new int[3 * NODES_PER_CLUSTER];
+        open = new IndexedMinHeap(0);
+        map.addCellChangeListener(this::cellChanged);
+    }
+
+    /**
+     * Builds the clusters that are not built yet, so the first path asked for does not pay for the whole graph.
+     */
+    public synchronized void build() {
+        refresh();
+    }
+
+    /**
+     * Searches a path for an enemy between two cells and gets its first step.
+     *
+     * @param startX x coordinate of the start.
+     * @param startY y coordinate of the start.
+     * @param goalX  x coordinate of the goal.
+     * @param goalY  y coordinate of the goal.
+     * @return index (y * width + x) of the first cell of the path, the start if it is the goal, or -1 if there is
+     * no path. The goal has to be ground to be reached.
+     */
+    public synchronized int findNextStep(int startX, int startY, int goalX, int goalY) {
+        refresh();
+        pathCost = -1;
+        if (startX < 0 || startY < 0 || startX >= width || startY >= height
+                || !walkability.isWalkable(WalkabilityMap.ENEMY, goalX, goalY)) {
+            return -1;
+        }
+        int start = startY * width + startX;
+        goalCell = goalY * width + goalX;
+        if (start == goalCell) {
+            pathCost = 0;
+            return start;
+        }
+
+        int startCluster = getCluster(start);
+        int goalCluster = getCluster(goalCell);
+        int goalKey = clusterNodes.length * NODES_PER_CLUSTER;
+        searchCluster(startCluster, start, startDistances, startParents);
+        searchCluster(goalCluster, goalCell, goalDistances, null);
+        nextGeneration();
+        searches++;
+
+        //The start is linked to the nodes of its cluster, and to the goal if it is in the same cluster.
+        if (startCluster == goalCluster && getLocal(startDistances, startCluster, goalCell) != UNREACHED) {
+            relax(goalKey, getLocal(startDistances, startCluster, goalCell), -1);
+        }
+        int[] startNodes = clusterNodes[startCluster];
+        for (int i = 0; i < startNodes.length; i++) {
+            int distance = getLocal(startDistances, startCluster, startNodes[i]);
+            if (distance != UNREACHED) {
+                relax(startCluster * NODES_PER_CLUSTER + i, distance, -1);
+            }
+        }
+
+        while (!open.isEmpty()) {
+            int key = open.poll();
+            closed[key] = generation;
+            expandedNodes++;
+            if (key == goalKey) {
+                open.clear();
+                pathCost = costs[goalKey];
+                return getFirstStep(start, startCluster, goalKey);
+            }
+            expand(key, goalCluster, goalKey);
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the cost of the path found by the last search.
+     *
+     * @return cost of the path, or -1 if no path was found.
+     */
+    public int getPathCost() {
+        return pathCost;
+    }
+
+    /**
+     * Retrieves the number of searches run on the graph.
+     *
+     * @return number of searches.
+     */
+    public int getSearches() {
+        return searches;
+    }
+
+    /**
+     * Retrieves the number of nodes expanded by every search on the graph.
+     *
+     * @return number of expanded nodes.
+     */
+    public long getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Retrieves the number of times a cluster was built, including the first time.
+     *
+     * @return number of built clusters.
+     */
+    public int getBuiltClusters() {
+        return builtClusters;
+    }
+
+    /**
+     * Lowers the cost of a node of the graph if the new one is better.
+     *
+     * @param key    key of the node.
+     * @param cost   cost of the path from the start to the node.
+     * @param parent key of the node it is reached from, -1 for the start.
+     */
+    private void relax(int key, int cost, int parent) {
+        if (closed[key] == generation) {
+            return;
+        }
+        int estimate = cost + getHeuristic(getCell(key), goalCell);
+        if (seen[key] != generation) {
+            seen[key] = generation;
+            costs[key] = cost;
+            parents[key] = parent;
+            open.insert(key, estimate);
+        } else if (cost < costs[key]) {
+            costs[key] = cost;
+            parents[key] = parent;
+            open.decreaseKey(key, estimate);
+        }
+    }
+
+    /**
+     * Relaxes the neighbours of a node: the other nodes of its cluster, the nodes across its entrances and the
+     * goal if it is in the same cluster.
+     *
+     * @param key         key of the node.
+     * @param goalCluster index of the cluster of the goal.
+     * @param goalKey     key of the goal.
+     */
+    private void expand(int key, int goalCluster, int goalKey) {
+        int cluster = key / NODES_PER_CLUSTER;
+        int node = key % NODES_PER_CLUSTER;
+        int[] nodes = clusterNodes[cluster];
+        int[] nodeCosts = clusterCosts[cluster];
+
+        if (cluster == goalCluster) {
+            int distance = getLocal(goalDistances, goalCluster, nodes[node]);
+            if (distance != UNREACHED) {
+                relax(goalKey, costs[key] + distance, key);
+            }
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            int distance = nodeCosts[node * nodes.length + i];
+            if (i != node && distance != UNREACHED) {
+                relax(cluster * NODES_PER_CLUSTER + i, costs[key] + distance, key);
+            }
+        }
+        int[] links = clusterLinks[cluster];
+        for (int i = 0; i < links.length; i += 3) {
+            if (links[i] == node) {
+                int otherCluster = getCluster(links[i + 1]);
+                int otherNode = indexOf(clusterNodes[otherCluster], links[i + 1]);
+                relax(otherCluster * NODES_PER_CLUSTER + otherNode, costs[key] + links[i + 2], key);
+            }
+        }
+    }
+
+    /**
+     * Walks the path back from the goal to find its first step. The path is refined cell by cell only inside
+     * the cluster of the start.
+     *
+     * @param start        index of the start.
+     * @param startCluster index of the cluster of the start.
+     * @param goalKey      key of the goal.
+     * @return index of the first step.
+     */
+    private int getFirstStep(int start, int startCluster, int goalKey) {
+        int key = goalKey;
+        int next = -1;
+        while (parents[key] != -1) {
+            next = key;
+            key = parents[key];
+        }
+        int target = getCell(key);
+        if (target == start) {
+            target = getCell(next);
+        }
+        //A target outside the cluster of the start is across an entrance the start stands on.
+        if (getCluster(target) != startCluster) {
+            return target;
+        }
+
+        int originX = (startCluster % clustersX) * CLUSTER_SIZE;
+        int originY = (startCluster / clustersX) * CLUSTER_SIZE;
+        int startLocal = (start / width - originY) * CLUSTER_SIZE + start % width - originX;
+        int local = (target / width - originY) * CLUSTER_SIZE + target % width - originX;
+        while (startParents[local] != startLocal) {
+            local = startParents[local];
+        }
+        return (originY + local / CLUSTER_SIZE) * width + originX + local % CLUSTER_SIZE;
+    }
+
+    /**
+     * Runs a Dijkstra search that stays inside a cluster.
+     *
+     * @param cluster      index of the cluster.
+     * @param cell         index of the cell the search starts from.
+     * @param distances    receives the distance to every cell of the cluster, by position in the cluster.
+     * @param localParents receives the cell every cell is reached from, can be null.
+     */
+    private void searchCluster(int cluster, int cell, int[] distances, int[] localParents) {
+        int originX = (cluster % clustersX) * CLUSTER_SIZE;
+        int originY = (cluster / clustersX) * CLUSTER_SIZE;
+        int sizeX = Math.min(CLUSTER_SIZE, width - originX);
+        int sizeY = Math.min(CLUSTER_SIZE, height - originY);
+        Arrays.fill(distances, UNREACHED);
+
+        int start = (cell / width - originY) * CLUSTER_SIZE + cell % width - originX;
+        distances[start] = 0;
+        if (localParents != null) {
+            localParents[start] = -1;
+        }
+        localOpen.clear();
+        localOpen.insert(start, 0);
+
+        while (!localOpen.isEmpty()) {
+            int current = localOpen.poll();
+            int x = current % CLUSTER_SIZE;
+            int y = current / CLUSTER_SIZE;
+            for (int i = 0; i < DIRECTION_X.length; i++) {
+                int nextX = x + DIRECTION_X[i];
+                int nextY = y + DIRECTION_Y[i];
+                if (nextX < 0 || nextY < 0 || nextX >= sizeX || nextY >= sizeY
+                        || !walkability.isWalkable(WalkabilityMap.ENEMY, originX + nextX, originY + nextY)) {
+                    continue;
+                }
+                int next = nextY * CLUSTER_SIZE + nextX;
+                int cost = distances[current] + getStepCost(i);
+                if (cost < distances[next]) {
+                    distances[next] = cost;
+                    if (localParents != null) {
+                        localParents[next] = current;
+                    }
+                    if (localOpen.contains(next)) {
+                        localOpen.decreaseKey(next, cost);
+                    } else {
+                        localOpen.insert(next, cost);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the clusters that changed, or the whole graph if the map was loaded again.
+     */
+    private void refresh() {
+        if (map.getWalkability() != walkability) {
+            walkability = map.getWalkability();
+            width = walkability.getWidth();
+            height = walkability.getHeight();
+            clustersX = (width + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+            clustersY = (height + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+            int clusters = clustersX * clustersY;
+            clusterNodes = new int[clusters][];
+            clusterLinks = new int[clusters][];
+            clusterCosts = new int[clusters][];
+            isDirty = new boolean[clusters];
+            dirtyClusters = new int[clusters];
+            dirtyCount = 0;
+            for (int i = 0; i < clusters; i++) {
+                markDirty(i);
+            }
+
+            int keys = clusters * NODES_PER_CLUSTER + 1;
+            costs = new int[keys];
+            parents = new int[keys];
+            seen = new int[keys];
+            closed = new int[keys];
+            generation = 0;
+            open = new IndexedMinHeap(keys);
+        }
+        while (dirtyCount > 0) {
+            int cluster = dirtyClusters[--dirtyCount];
+            isDirty[cluster] = false;
+            buildCluster(cluster);
+        }
+    }
+
+    /**
+     * Finds the entrances of a cluster and the distances between them.
+     *
+     * @param cluster index of the cluster.
+     */
+    private void buildCluster(int cluster) {
+        int originX = (cluster % clustersX) * CLUSTER_SIZE;
+        int originY = (cluster / clustersX) * CLUSTER_SIZE;
+        int endX = Math.min(originX + CLUSTER_SIZE, width) - 1;
+        int endY = Math.min(originY + CLUSTER_SIZE, height) - 1;
+        buildNodeCount = 0;
+        buildLinkCount = 0;
+
+        //Every edge is scanned in the same order from both of its sides, so both find the same entrances.
+        addEntrances(originX, originY, 0, 1, -1, 0, endY - originY + 1);
+        addEntrances(endX, originY, 0, 1, 1, 0, endY - originY + 1);
+        addEntrances(originX, originY, 1, 0, 0, -1, endX - originX + 1);
+        addEntrances(originX, endY, 1, 0, 0, 1, endX - originX + 1);
+        addCornerEntrance(originX, originY, -1, -1);
+        addCornerEntrance(endX, originY, 1, -1);
+        addCornerEntrance(originX, endY, -1, 1);
+        addCornerEntrance(endX, endY, 1, 1);
+
+        int[] nodes = Arrays.copyOf(buildNodes, buildNodeCount);
+        int[] nodeCosts = new int[nodes.length * nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            searchCluster(cluster, nodes[i], localDistances, null);
+            for (int j = 0; j < nodes.length; j++) {
+                nodeCosts[i * nodes.length + j] = getLocal(localDistances, cluster, nodes[j]);
+            }
+        }
+        clusterNodes[cluster] = nodes;
+        clusterLinks[cluster] = Arrays.copyOf(buildLinks, buildLinkCount);
+        clusterCosts[cluster] = nodeCosts;
+        builtClusters++;
+    }
+
+    /**
+     * Finds the entrances along an edge of a cluster. Each stretch of ground on both sides of the edge is an
+     * entrance, and so is a diagonal step across the edge that can not be made any other way.
+     *
+     * @param firstX x coordinate of the first cell of the edge, inside the cluster.
+     * @param firstY y coordinate of the first cell of the edge, inside the cluster.
+     * @param alongX horizontal step along the edge.
+     * @param alongY vertical step along the edge.
+     * @param acrossX horizontal step out of the cluster.
+     * @param acrossY vertical step out of the cluster.
+     * @param length number of cells on the edge.
+     */
+    private void addEntrances(int firstX, int firstY, int alongX, int alongY, int acrossX, int acrossY,
+                              int length) {
+        if (!isInside(firstX + acrossX, firstY + acrossY)) {
+            return;
+        }
+        int stretchStart = -1;
+        for (int i = 0; i <= length; i++) {
+            int x = firstX + i * alongX;
+            int y = firstY + i * alongY;
+            boolean isOpen = i < length && isGround(x, y) && isGround(x + acrossX, y + acrossY);
+
+            if (isOpen && stretchStart == -1) {
+                stretchStart = i;
+            } else if (!isOpen && stretchStart != -1) {
+                int stretchEnd = i - 1;
+                if (stretchEnd - stretchStart + 1 >= WIDE_ENTRANCE) {
+                    addEntrance(firstX, firstY, alongX, alongY, acrossX, acrossY, stretchStart, 0);
+                    addEntrance(firstX, firstY, alongX, alongY, acrossX, acrossY, stretchEnd, 0);
+                } else {
+                    addEntrance(firstX, firstY, alongX, alongY, acrossX, acrossY,
+                            (stretchStart + stretchEnd) / 2, 0);
+                }
+                stretchStart = -1;
+            }
+
+            if (i + 1 < length) {
+                boolean isInsideBlocked = !isGround(x + alongX, y + alongY);
+                boolean isOutsideBlocked = !isGround(x + acrossX, y + acrossY);
+                boolean isNextOutsideBlocked = !isGround(x + alongX + acrossX, y + alongY + acrossY);
+                if (isGround(x, y) && !isNextOutsideBlocked && isOutsideBlocked && isInsideBlocked) {
+                    addEntrance(firstX, firstY, alongX, alongY, acrossX, acrossY, i, 1);
+                }
+                if (!isInsideBlocked && !isOutsideBlocked && !isGround(x, y) && isNextOutsideBlocked) {
+                    addEntrance(firstX, firstY, alongX, alongY, acrossX, acrossY, i + 1, -1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds an entrance found along an edge.
+     *
+     * @param firstX  x coordinate of the first cell of the edge.
+     * @param firstY  y coordinate of the first cell of the edge.
+     * @param alongX  horizontal step along the edge.
+     * @param alongY  vertical step along the edge.
+     * @param acrossX horizontal step out of the cluster.
+     * @param acrossY vertical step out of the cluster.
+     * @param index   position of the cell inside the cluster on the edge.
+     * @param shift   0 for a straight step out, 1 or -1 for a diagonal step going along the edge.
+     */
+    private void addEntrance(int firstX, int firstY, int alongX, int alongY, int acrossX, int acrossY, int index,
+                             int shift) {
+        int x = firstX + index * alongX;
+        int y = firstY + index * alongY;
+        int otherX = x + acrossX + shift * alongX;
+        int otherY = y + acrossY + shift * alongY;
+        addLink(y * width + x, otherY * width + otherX, shift == 0 ? STRAIGHT_COST : DIAGONAL_COST);
+    }
+
+    /**
+     * Adds the diagonal step out of a corner of a cluster as an entrance, if it can not be made any other way.
+     *
+     * @param x          x coordinate of the corner.
+     * @param y          y coordinate of the corner.
+     * @param directionX horizontal part of the step.
+     * @param directionY vertical part of the step.
+     */
+    private void addCornerEntrance(int x, int y, int directionX, int directionY) {
+        if (isGround(x, y) && isGround(x + directionX, y + directionY)
+                && !isGround(x + directionX, y) && !isGround(x, y + directionY)) {
+            addLink(y * width + x, (y + directionY) * width + x + directionX, DIAGONAL_COST);
+        }
+    }
+
+    /**
+     * Adds an entrance to the cluster being built, making its inside cell a node if it is not one already.
+     *
+     * @param cell  index of the cell inside the cluster.
+     * @param other index of the cell in the other cluster.
+     * @param cost  cost of the step between them.
+     */
+    private void addLink(int cell, int other, int cost) {
+        int node = indexOf(buildNodes, buildNodeCount, cell);
+        if (node == -1) {
+            node = buildNodeCount;
+            buildNodes[buildNodeCount++] = cell;
+        }
+        if (buildLinkCount + 3 > buildLinks.length) {
+            buildLinks = Arrays.copyOf(buildLinks, buildLinks.length * 2);
+        }
+        buildLinks[buildLinkCount++] = node;
+        buildLinks[buildLinkCount++] = other;
+        buildLinks[buildLinkCount++] = cost;
+    }
+
+    /**
+     * Called by the map when a cell was replaced. The clusters of the cell and of its neighbours are built again,
+     * since the entrances on their edges may have changed.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     */
+    private synchronized void cellChanged(int x, int y) {
+        if (walkability == null || map.getWalkability() != walkability) {
+            return;
+        }
+        for (int offsetY = -1; offsetY <= 1; offsetY++) {
+            for (int offsetX = -1; offsetX <= 1; offsetX++) {
+                if (isInside(x + offsetX, y + offsetY)) {
+                    markDirty(getCluster((y + offsetY) * width + x + offsetX));
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks a cluster to be built before the next search.
+     *
+     * @param cluster index of the cluster.
+     */
+    private void markDirty(int cluster) {
+        if (!isDirty[cluster]) {
+            isDirty[cluster] = true;
+            dirtyClusters[dirtyCount++] = cluster;
+        }
+    }
+
+    /**
+     * Gets the cluster a cell is in.
+     *
+     * @param cell index of the cell.
+     * @return index of the cluster.
+     */
+    private int getCluster(int cell) {
+        return (cell / width / CLUSTER_SIZE) * clustersX + cell % width / CLUSTER_SIZE;
+    }
+
+    /**
+     * Gets the cell of a node of the graph.
+     *
+     * @param key key of the node.
+     * @return index of the cell.
+     */
+    private int getCell(int key) {
+        if (key == clusterNodes.length * NODES_PER_CLUSTER) {
+            return goalCell;
+        }
+        return clusterNodes[key / NODES_PER_CLUSTER][key % NODES_PER_CLUSTER];
+    }
+
+    /**
+     * Reads the value of a cell from the result of a search inside a cluster.
+     *
+     * @param distances the result of the search.
+     * @param cluster   index of the cluster.
+     * @param cell      index of the cell.
+     * @return the value of the cell.
+     */
+    private int getLocal(int[] distances, int cluster, int cell) {
+        int originX = (cluster % clustersX) * CLUSTER_SIZE;
+        int originY = (cluster / clustersX) * CLUSTER_SIZE;
+        return distances[(cell / width - originY) * CLUSTER_SIZE + cell % width - originX];
+    }
+
+    /**
+     * Starts a new generation of the search on the graph, clearing the arrays only when the counter runs out.
+     */
+    private void nextGeneration() {
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            generation = 0;
+        }
+        generation++;
+    }
+
+    /**
+     * Estimates the cost between two cells, the cost of the path if there were no walls.
+     *
+     * @param cell  index of the cell.
+     * @param other index of the other cell.
+     * @return estimated cost.
+     */
+    private int getHeuristic(int cell, int other) {
+        int distX = Math.abs(cell % width - other % width);
+        int distY = Math.abs(cell / width - other / width);
+        return STRAIGHT_COST * (distX + distY) + (DIAGONAL_COST - 2 * STRAIGHT_COST) * Math.min(distX, distY);
+    }
+
+    /**
+     * Checks if a cell is ground, the cells off the map are not.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     * @return True if an enemy can walk on the cell, else False.
+     */
+    private boolean isGround(int x, int y) {
+        return walkability.isWalkable(WalkabilityMap.ENEMY, x, y);
+    }
+
+    /**
+     * Checks if a cell is on the map.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     * @return True if the cell is on the map, else False.
+     */
+    private boolean isInside(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    /**
+     * Finds a cell among the nodes of a cluster.
+     *
+     * @param nodes the cells of the nodes.
+     * @param cell  index of the cell.
+     * @return position of the cell among the nodes, -1 if it is not a node.
+     */
+    private static int indexOf(int[] nodes, int cell) {
+        return indexOf(nodes, nodes.length, cell);
+    }
+
+    /**
+     * Finds a cell among the first nodes of a list.
+     *
+     * @param nodes the cells of the nodes.
+     * @param count number of nodes to look at.
+     * @param cell  index of the cell.
+     * @return position of the cell among the nodes, -1 if it is not a node.
+     */
+    private static int indexOf(int[] nodes, int count, int cell) {
+        for (int i = 0; i < count; i++) {
+            if (nodes[i] == cell) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the cost of a step.
+     *
+     * @param direction index of the direction of the step.
+     * @return the cost of the step.
+     */
+    private static int getStepCost(int direction) {
+        return DIRECTION_X[direction] != 0 && DIRECTION_Y[direction] != 0 ? DIAGONAL_COST : STRAIGHT_COST;
+    }
+}
@@ -1,9 +1,6 @@
 import javafx.geometry.Point2D;
 import javafx.scene.image.Image;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-
 /**
  * Class used for enemy which targets the player, but not challenging.
  *
@@ -12,7 +9,6 @@ import java.io.FileNotFoundException;
  */
 public class DumbTargetingEnemy extends Enemy {
     private Point2D position; //Position of enemy.
-    private Cell[][] currentMapState = Map.getInstance().getCellArray(); // MapState
     private String filePath = "assets/images/DumbTargetingEnemy.png";
     private static Image artAsset;
 
@@ -23,11 +19,7 @@ public class DumbTargetingEnemy extends Enemy {
      */
     public DumbTargetingEnemy(Point2D point2D) {
         this.position = point2D;
-        try {
-            artAsset = new Image(new FileInputStream(filePath));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        artAsset = AssetRegistry.getInstance().getImage(filePath);
     }
 
     /**
@@ -57,9 +49,9 @@ public class DumbTargetingEnemy extends Enemy {
             movementY = 1;
         }
 
-        if (currentMapState[currentY + movementY][currentX].getClass() == Ground.class && movementY != 0) {
+        if (isGround(currentX, currentY + movementY) && movementY != 0) {
             return new Point2D(0, movementY);
-        } else if (currentMapState[currentY][currentX + movementX].getClass() == Ground.class && movementX != 0) {
+        } else if (isGround(currentX + movementX, currentY) && movementX != 0) {
             return new Point2D(movementX, 0);
         }
         return new Point2D(0, 0);
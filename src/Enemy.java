@@ -46,4 +46,26 @@ public abstract class Enemy {
      * @return art asset as a JavaFX Image.
      */
     public abstract Image getArtAsset();
+
+    /**
+     * Checks if an enemy can walk on a cell, reading the walkability of the map.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     * @return True if the cell is ground, else False.
+     */
+    protected static boolean isGround(int x, int y) {
+        return Map.getInstance().getWalkability().isWalkable(WalkabilityMap.ENEMY, x, y);
+    }
+
+    /**
+     * Checks if a cell is passable, reading the walkability of the map.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     * @return True if the cell is passable, else False.
+     */
+    protected static boolean isPassable(int x, int y) {
+        return Map.getInstance().getWalkability().isWalkable(WalkabilityMap.PLAYER, x, y);
+    }
 }
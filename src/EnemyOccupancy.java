@@ -0,0 +1,194 @@
+import java.util.Arrays;
+
+/**
+ * This class tells which enemies stand on each cell of the map, so finding the enemies on a cell does not go
+ * through all of them.
+ * <p>
+ * Enemies are known by their position in the enemy list of the map. The enemies standing on a cell are linked
+ * together through arrays indexed by enemy, the cell only holds the first of them, so several enemies can share
+ * a cell and moving one takes constant time. Enemies outside of the map are not indexed.
+ */
+public class EnemyOccupancy {
+    public static final int NONE = -1; //No enemy, or no cell.
+    private static final int DEFAULT_CAPACITY = 16;
+    private final int width;
+    private final int height;
+    private int[] firstEnemy; //The first enemy on every cell, the cell of (x, y) being y * width + x.
+    private int[] nextEnemy; //The next enemy on the same cell.
+    private int[] previousEnemy; //The previous enemy on the same cell.
+    private int[] enemyCell; //The cell every enemy is indexed on.
+    private int size;
+
+    /**
+     * Creates an index of a map with no enemy.
+     *
+     * @param width  number of cells on a row of the map.
+     * @param height number of rows of the map.
+     */
+    public EnemyOccupancy(int width, int height) {
+        this.width = width;
+        this.height = height;
+        firstEnemy = new int[width * height];
+        Arrays.fill(firstEnemy, NONE);
+        nextEnemy = new int[DEFAULT_CAPACITY];
+        previousEnemy = new int[DEFAULT_CAPACITY];
+        enemyCell = new int[DEFAULT_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Adds the next enemy of the enemy list.
+     *
+     * @param x coordinate of the enemy.
+     * @param y coordinate of the enemy.
+     * @return the index of the enemy.
+     */
+    public int add(int x, int y) {
+        if (size == enemyCell.length) {
+            grow();
+        }
+        int enemy = size++;
+        enemyCell[enemy] = NONE;
+        link(enemy, toCell(x, y));
+        return enemy;
+    }
+
+    /**
+     * Updates the index after an enemy moved.
+     *
+     * @param enemy index of the enemy.
+     * @param x     x coordinate of the enemy after the move.
+     * @param y     y coordinate of the enemy after the move.
+     */
+    public void move(int enemy, int x, int y) {
+        int cell = toCell(x, y);
+        if (cell == enemyCell[enemy]) {
+            return;
+        }
+        unlink(enemy);
+        link(enemy, cell);
+    }
+
+    /**
+     * Get the first enemy standing on a cell, the others are found with getNext.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     * @return the index of the enemy, NONE if the cell is empty or outside of the map.
+     */
+    public int getFirst(int x, int y) {
+        int cell = toCell(x, y);
+        return cell == NONE ? NONE : firstEnemy[cell];
+    }
+
+    /**
+     * Get the next enemy standing on the same cell as an enemy.
+     *
+     * @param enemy index of the enemy.
+     * @return the index of the next enemy, NONE if it is the last one.
+     */
+    public int getNext(int enemy) {
+        return nextEnemy[enemy];
+    }
+
+    /**
+     * Checks if an enemy stands on a cell.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     * @return True if there is an enemy on the cell, else False.
+     */
+    public boolean isOccupied(int x, int y) {
+        return getFirst(x, y) != NONE;
+    }
+
+    /**
+     * Get the number of enemies standing on a cell.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     * @return the number of enemies.
+     */
+    public int count(int x, int y) {
+        int count = 0;
+        for (int enemy = getFirst(x, y); enemy != NONE; enemy = nextEnemy[enemy]) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of indexed enemies.
+     *
+     * @return the number of enemies.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Puts an enemy first on a cell.
+     *
+     * @param enemy index of the enemy.
+     * @param cell  the cell, NONE to leave the enemy out.
+     */
+    private void link(int enemy, int cell) {
+        enemyCell[enemy] = cell;
+        previousEnemy[enemy] = NONE;
+        if (cell == NONE) {
+            nextEnemy[enemy] = NONE;
+            return;
+        }
+        nextEnemy[enemy] = firstEnemy[cell];
+        if (firstEnemy[cell] != NONE) {
+            previousEnemy[firstEnemy[cell]] = enemy;
+        }
+        firstEnemy[cell] = enemy;
+    }
+
+    /**
+     * Takes an enemy off its cell.
+     *
+     * @param enemy index of the enemy.
+     */
+    private void unlink(int enemy) {
+        int cell = enemyCell[enemy];
+        if (cell == NONE) {
+            return;
+        }
+        int previous = previousEnemy[enemy];
+        int next = nextEnemy[enemy];
+        if (previous == NONE) {
+            firstEnemy[cell] = next;
+        } else {
+            nextEnemy[previous] = next;
+        }
+        if (next != NONE) {
+            previousEnemy[next] = previous;
+        }
+    }
+
+    /**
+     * Get the cell of a position.
+     *
+     * @param x coordinate of the position.
+     * @param y coordinate of the position.
+     * @return the cell, NONE if the position is outside of the map.
+     */
+    private int toCell(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return NONE;
+        }
+        return y * width + x;
+    }
+
+    /**
+     * Doubles the number of enemies the index can hold.
+     */
+    private void grow() {
+        int capacity = enemyCell.length * 2;
+        nextEnemy = Arrays.copyOf(nextEnemy, capacity);
+        previousEnemy = Arrays.copyOf(previousEnemy, capacity);
+        enemyCell = Arrays.copyOf(enemyCell, capacity);
+    }
+}
@@ -0,0 +1,136 @@
+import javafx.geometry.Point2D;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class works out the next move of every enemy of the map once per turn and keeps them for the rest of it,
+ * so the collision check of the player, the animations and the new positions all use the same moves, and an
+ * enemy whose getNextMove changes its state, e.g. turning around, does so only once.
+ * <p>
+ * An enemy only decides its move from the cells of the map, the position of the player and its own state,
+ * none of which is changed by another enemy deciding or by the moves being applied. With many enemies, the
+ * moves are worked out in parallel on the common ForkJoin pool while the caller waits, the map being left
+ * untouched until they all are. That is only done when the smart enemies run their own A* or Jump Point
+ * searches, each on an engine of its own, the flow field and the cluster graph being searched one at a time. Each move is stored at the position of its enemy, so applying them in that
+ * order gives the same turn as working them out one after the other.
+ */
+public class EnemyPlanner {
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 64;
+    private static final int BATCH_SIZE = 16; //Number of enemies a task works out without splitting.
+    private Point2D[] moves;
+    private int plannedTurn = -1;
+    private int plannedEnemies;
+    private long planningTime;
+    private int parallelThreshold;
+
+    /**
+     * Creates a planner.
+     */
+    public EnemyPlanner() {
+        moves = new Point2D[0];
+        parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    }
+
+    /**
+     * Gets the next move of every enemy for a turn, working them out the first time the turn asks for them.
+     *
+     * @param enemies the enemies of the map.
+     * @param turn    the current turn.
+     * @return the moves, the move of an enemy at its position in the list. The array is reused by the next turn.
+     */
+    public Point2D[] planTurn(List<Enemy> enemies, int turn) {
+        if (turn != plannedTurn || enemies.size() != plannedEnemies) {
+            long startTime = System.nanoTime();
+            planMoves(enemies);
+            planningTime = System.nanoTime() - startTime;
+            plannedTurn = turn;
+            plannedEnemies = enemies.size();
+        }
+        return moves;
+    }
+
+    /**
+     * Get the time it took to work out the moves of the last planned turn.
+     *
+     * @return the time in nanoseconds.
+     */
+    public long getPlanningTime() {
+        return planningTime;
+    }
+
+    /**
+     * Works out the next move of every enemy.
+     *
+     * @param enemies the enemies of the map.
+     */
+    private void planMoves(List<Enemy> enemies) {
+        if (moves.length < enemies.size()) {
+            moves = new Point2D[enemies.size()];
+        }
+
+        int searchMode = Map.getInstance().getSearchMode();
+        boolean searchesInParallel = searchMode == SmartTargetingEnemy.A_STAR
+                || searchMode == SmartTargetingEnemy.JUMP_POINT;
+        if (enemies.size() < parallelThreshold || ForkJoinPool.getCommonPoolParallelism() < 2
+                || !searchesInParallel) {
+            for (int i = 0; i < enemies.size(); i++) {
+                moves[i] = enemies.get(i).getNextMove();
+            }
+        } else {
+            ForkJoinPool.commonPool().invoke(new PlanTask(enemies, moves, 0, enemies.size()));
+        }
+    }
+
+    /**
+     * Sets the number of enemies from which the moves are worked out in parallel. Fewer enemies are not worth
+     * handing to the pool, and neither is anything on a machine with a single core.
+     *
+     * @param parallelThreshold the number of enemies, Integer.MAX_VALUE to never work in parallel.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Works out the moves of a range of enemies, splitting it in two while it is larger than a batch.
+     */
+    private static class PlanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<Enemy> enemies;
+        private final Point2D[] moves;
+        private final int from;
+        private final int to;
+
+        /**
+         * Creates a task.
+         *
+         * @param enemies the enemies of the map.
+         * @param moves   receives the moves.
+         * @param from    position of the first enemy of the range.
+         * @param to      position after the last enemy of the range.
+         */
+        PlanTask(List<Enemy> enemies, Point2D[] moves, int from, int to) {
+            this.enemies = enemies;
+            this.moves = moves;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Works out the moves of the range.
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                for (int i = from; i < to; i++) {
+                    moves[i] = enemies.get(i).getNextMove();
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PlanTask(enemies, moves, from, middle), new PlanTask(enemies, moves, middle, to));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * This class keeps one long lived sprite for every enemy on screen.
+ * <p>
+ * Sprites are added to the scene once and reused across turns. When an enemy leaves the screen its sprite is
+ * hidden and put back in the pool, ready to be given to the next enemy that comes into view.
+ */
+public class EnemySpritePool {
+    private Pane parent;
+    private FrameLoop frameLoop;
+    private TextureAtlas atlas;
+    private IdentityHashMap<Enemy, ImageView> activeSprites;
+    private IdentityHashMap<ImageView, SpriteMotion> motions;
+    private ArrayDeque<ImageView> freeSprites;
+    private Set<Enemy> usedThisPass; //Compares the enemies by identity, as the sprites are given to objects.
+    private ArrayList<Enemy> offScreen; //Reused by every pass for the enemies that lose their sprite.
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param parent    The pane the sprites are placed on.
+     * @param frameLoop The frame loop that moves the sprites.
+     * @param atlas     The texture atlas the enemy art is taken from.
+     */
+    public EnemySpritePool(Pane parent, FrameLoop frameLoop, TextureAtlas atlas) {
+        this.parent = parent;
+        this.frameLoop = frameLoop;
+        this.atlas = atlas;
+        activeSprites = new IdentityHashMap<>();
+        motions = new IdentityHashMap<>();
+        freeSprites = new ArrayDeque<>();
+        usedThisPass = Collections.newSetFromMap(new IdentityHashMap<>());
+        offScreen = new ArrayList<>();
+    }
+
+    /**
+     * Starts a drawing pass. Enemies that are not given a sprite before the pass ends lose theirs.
+     */
+    public void beginPass() {
+        usedThisPass.clear();
+    }
+
+    /**
+     * Gets the sprite of an enemy, taking one from the pool if the enemy has none.
+     * The returned sprite is visible and not animating.
+     *
+     * @param enemy The enemy that is drawn.
+     * @return The sprite of the enemy.
+     */
+    public ImageView acquire(Enemy enemy) {
+        ImageView sprite = activeSprites.get(enemy);
+
+        if (sprite == null) {
+            sprite = freeSprites.poll();
+            if (sprite == null) {
+                sprite = new ImageView();
+                SpriteMotion motion = new SpriteMotion(sprite);
+                motions.put(sprite, motion);
+                frameLoop.addMotion(motion);
+                parent.getChildren().add(sprite);
+            }
+            activeSprites.put(enemy, sprite);
+            setArt(sprite, enemy);
+            sprite.setVisible(true);
+        }
+        motions.get(sprite).stop();
+        usedThisPass.add(enemy);
+        return sprite;
+    }
+
+    /**
+     * Shows the art of an enemy on a sprite, taking it from the texture atlas when it was packed in it.
+     *
+     * @param sprite The sprite.
+     * @param enemy  The enemy whose art is shown.
+     */
+    private void setArt(ImageView sprite, Enemy enemy) {
+        AtlasRegion region = atlas.getRegion(enemy.getArtAsset());
+
+        if (region == null) {
+            sprite.setImage(enemy.getArtAsset());
+            sprite.setViewport(null);
+        } else {
+            sprite.setImage(region.getPage());
+            sprite.setViewport(region.getViewport());
+        }
+    }
+
+    /**
+     * Ends a drawing pass, hiding the sprites of the enemies that were not drawn and returning them to the pool.
+     */
+    public void endPass() {
+        offScreen.clear();
+        for (Enemy enemy : activeSprites.keySet()) {
+            if (!usedThisPass.contains(enemy)) {
+                offScreen.add(enemy);
+            }
+        }
+        for (Enemy enemy : offScreen) {
+            release(enemy);
+        }
+        offScreen.clear();
+    }
+
+    /**
+     * Hides the sprite of an enemy and returns it to the pool.
+     *
+     * @param enemy The enemy whose sprite is released.
+     */
+    public void release(Enemy enemy) {
+        ImageView sprite = activeSprites.remove(enemy);
+        if (sprite != null) {
+            motions.get(sprite).stop();
+            sprite.setVisible(false);
+            freeSprites.push(sprite);
+        }
+    }
+
+    /**
+     * Get the sprite of an enemy without taking one from the pool.
+     *
+     * @param enemy The enemy.
+     * @return The sprite of the enemy, or null if it is not on screen.
+     */
+    public ImageView getSprite(Enemy enemy) {
+        return activeSprites.get(enemy);
+    }
+
+    /**
+     * Get the motion used to animate a sprite.
+     *
+     * @param sprite The sprite.
+     * @return The motion of the sprite.
+     */
+    public SpriteMotion getMotion(ImageView sprite) {
+        return motions.get(sprite);
+    }
+
+    /**
+     * Get the number of sprites that are shown.
+     *
+     * @return The number of active sprites.
+     */
+    public int getActiveCount() {
+        return activeSprites.size();
+    }
+
+    /**
+     * Get the number of sprites the pool has created.
+     *
+     * @return The number of sprites in the scene.
+     */
+    public int getNodeCount() {
+        return motions.size();
+    }
+}
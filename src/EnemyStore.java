@@ -0,0 +1,648 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class holds many enemies in parallel arrays of primitives instead of one object per enemy, for bots and
+ * tools playing levels without a window. An enemy is an index into the arrays: its cell, its type, the direction
+ * it faces and the state of its wall following. Enemies of a type are moved together by {@link #stepAll(int)},
+ * a loop over the arrays that allocates nothing, so a hundred thousand enemies take a few megabytes and a turn
+ * is cheap.
+ * <p>
+ * The enemies move exactly like the enemy classes of the same type, read the same walkability of the map and,
+ * for the smart enemies, use the search mode and the path cache of the map. An enemy decides its move from the
+ * cells and the player only, so moving the enemies one by one gives the same turn as working out every move
+ * first.
+ */
+public class EnemyStore {
+    public static final int STRAIGHT_LINE = 0;
+    public static final int WALL_FOLLOWING = 1;
+    public static final int DUMB_TARGETING = 2;
+    public static final int SMART_TARGETING = 3;
+    public static final int NO_DIRECTION = -1;
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+    private static final int TYPES = 4;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int NO_MOVE = -1; //A wall following check that found no move.
+    //The state bits of a wall following enemy.
+    private static final int HAS_TO_REDIRECT = 1;
+    private static final int HAS_REDIRECTED = 2;
+    private int size;
+    private int[] x;
+    private int[] y;
+    private byte[] type;
+    private byte[] direction;
+    private byte[] state;
+    private byte[] lastMove; //The last move of every enemy, encoded by getMove.
+    private int[][] members; //The enemies of each type, in the order they were added.
+    private int[] memberCounts;
+    private WalkabilityMap walkability; //Read by the enemy being moved.
+    private int numberOfChecks; //Number of diagonal cells checked by the wall following enemy being moved.
+
+    /**
+     * Creates an empty store.
+     */
+    public EnemyStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty store.
+     *
+     * @param capacity number of enemies the store holds before growing.
+     */
+    public EnemyStore(int capacity) {
+        capacity = Math.max(capacity, 1);
+        x = new int[capacity];
+        y = new int[capacity];
+        type = new byte[capacity];
+        direction = new byte[capacity];
+        state = new byte[capacity];
+        lastMove = new byte[capacity];
+        members = new int[TYPES][capacity];
+        memberCounts = new int[TYPES];
+    }
+
+    /**
+     * Creates a store holding the enemies of a list, in the same order. The wall following enemies are taken as
+     * they are at the start of a level, and the smart enemies use the search mode of the map.
+     *
+     * @param enemies the enemies.
+     * @return the store.
+     */
+    public static EnemyStore fromEnemies(List<Enemy> enemies) {
+        EnemyStore store = new EnemyStore(enemies.size());
+        for (Enemy enemy : enemies) {
+            int enemyX = (int) enemy.getPosition().getX();
+            int enemyY = (int) enemy.getPosition().getY();
+            if (enemy instanceof StraightLineEnemy) {
+                store.add(STRAIGHT_LINE, enemyX, enemyY, toDirection(((StraightLineEnemy) enemy).getDirection()));
+            } else if (enemy instanceof WallFollowingEnemy) {
+                store.add(WALL_FOLLOWING, enemyX, enemyY, toDirection(((WallFollowingEnemy) enemy).getDirection()));
+            } else if (enemy instanceof DumbTargetingEnemy) {
+                store.add(DUMB_TARGETING, enemyX, enemyY, NO_DIRECTION);
+            } else {
+                store.add(SMART_TARGETING, enemyX, enemyY, NO_DIRECTION);
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Turns a direction written as in the map files into a direction of the store.
+     *
+     * @param direction "U", "D", "L" or "R".
+     * @return UP, DOWN, LEFT, RIGHT, or NO_DIRECTION for anything else.
+     */
+    public static int toDirection(String direction) {
+        switch (direction) {
+            case "U":
+                return UP;
+            case "D":
+                return DOWN;
+            case "L":
+                return LEFT;
+            case "R":
+                return RIGHT;
+            default:
+                return NO_DIRECTION;
+        }
+    }
+
+    /**
+     * Adds an enemy.
+     *
+     * @param enemyType      STRAIGHT_LINE, WALL_FOLLOWING, DUMB_TARGETING or SMART_TARGETING.
+     * @param enemyX         coordinate of the enemy.
+     * @param enemyY         coordinate of the enemy.
+     * @param enemyDirection the direction the enemy faces, NO_DIRECTION for the targeting enemies.
+     * @return index of the enemy.
+     */
+    public int add(int enemyType, int enemyX, int enemyY, int enemyDirection) {
+        if (size == x.length) {
+            grow();
+        }
+        x[size] = enemyX;
+        y[size] = enemyY;
+        type[size] = (byte) enemyType;
+        direction[size] = (byte) enemyDirection;
+        state[size] = HAS_REDIRECTED;
+        lastMove[size] = (byte) getMove(0, 0);
+        members[enemyType][memberCounts[enemyType]++] = size;
+        return size++;
+    }
+
+    /**
+     * Moves every enemy by one turn, the types one after the other.
+     */
+    public void stepAll() {
+        for (int enemyType = 0; enemyType < TYPES; enemyType++) {
+            stepAll(enemyType);
+        }
+    }
+
+    /**
+     * Moves every enemy of a type by one turn.
+     *
+     * @param enemyType STRAIGHT_LINE, WALL_FOLLOWING, DUMB_TARGETING or SMART_TARGETING.
+     */
+    public void stepAll(int enemyType) {
+        Map map = Map.getInstance();
+        walkability = map.getWalkability();
+        int[] enemies = members[enemyType];
+        int count = memberCounts[enemyType];
+
+        if (enemyType == STRAIGHT_LINE) {
+            for (int i = 0; i < count; i++) {
+                apply(enemies[i], getStraightLineMove(enemies[i]));
+            }
+        } else if (enemyType == WALL_FOLLOWING) {
+            for (int i = 0; i < count; i++) {
+                int enemy = enemies[i];
+                applyWallFollowing(enemy, getWallFollowingMove(enemy));
+            }
+        } else {
+            int playerX = (int) map.getPlayer().getPosition().getX();
+            int playerY = (int) map.getPlayer().getPosition().getY();
+            int searchMode = map.getSearchMode();
+            int width = walkability.getWidth();
+            for (int i = 0; i < count; i++) {
+                int enemy = enemies[i];
+                int next = enemyType == SMART_TARGETING
+                        ? SmartTargetingEnemy.findNextStep(searchMode, x[enemy], y[enemy]) : -1;
+                if (next == -1) {
+                    apply(enemy, getTargetingMove(enemy, playerX, playerY));
+                } else {
+                    apply(enemy, getMove(next % width - x[enemy], next / width - y[enemy]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the enemy standing on a cell.
+     *
+     * @param cellX coordinate of the cell.
+     * @param cellY coordinate of the cell.
+     * @return index of the first enemy on the cell, or -1 if there is none.
+     */
+    public int findEnemyAt(int cellX, int cellY) {
+        for (int i = 0; i < size; i++) {
+            if (x[i] == cellX && y[i] == cellY) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the number of enemies.
+     *
+     * @return the number of enemies.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the x coordinate of an enemy.
+     *
+     * @param enemy index of the enemy.
+     * @return x coordinate of the enemy.
+     */
+    public int getX(int enemy) {
+        return x[enemy];
+    }
+
+    /**
+     * Get the y coordinate of an enemy.
+     *
+     * @param enemy index of the enemy.
+     * @return y coordinate of the enemy.
+     */
+    public int getY(int enemy) {
+        return y[enemy];
+    }
+
+    /**
+     * Get the type of an enemy.
+     *
+     * @param enemy index of the enemy.
+     * @return STRAIGHT_LINE, WALL_FOLLOWING, DUMB_TARGETING or SMART_TARGETING.
+     */
+    public int getType(int enemy) {
+        return type[enemy];
+    }
+
+    /**
+     * Get the direction an enemy faces.
+     *
+     * @param enemy index of the enemy.
+     * @return UP, DOWN, LEFT, RIGHT or NO_DIRECTION.
+     */
+    public int getDirection(int enemy) {
+        return direction[enemy];
+    }
+
+    /**
+     * Get the horizontal direction of the last move of an enemy.
+     *
+     * @param enemy index of the enemy.
+     * @return -1, 0 or 1.
+     */
+    public int getMoveX(int enemy) {
+        return lastMove[enemy] % 3 - 1;
+    }
+
+    /**
+     * Get the vertical direction of the last move of an enemy.
+     *
+     * @param enemy index of the enemy.
+     * @return -1, 0 or 1.
+     */
+    public int getMoveY(int enemy) {
+        return lastMove[enemy] / 3 - 1;
+    }
+
+    /**
+     * Works out the move of a straight line enemy, turning it around in front of anything impassable.
+     *
+     * @param enemy index of the enemy.
+     * @return the move.
+     */
+    private int getStraightLineMove(int enemy) {
+        int currentX = x[enemy];
+        int currentY = y[enemy];
+
+        switch (direction[enemy]) {
+            case UP:
+                if (!isPassable(currentX, currentY - 1)) {
+                    direction[enemy] = DOWN;
+                    return getMove(0, 1);
+                }
+                return getMove(0, -1);
+            case DOWN:
+                if (!isPassable(currentX, currentY + 1)) {
+                    direction[enemy] = UP;
+                    return getMove(0, -1);
+                }
+                return getMove(0, 1);
+            case LEFT:
+                if (!isPassable(currentX - 1, currentY)) {
+                    direction[enemy] = RIGHT;
+                    return getMove(1, 0);
+                }
+                return getMove(-1, 0);
+            case RIGHT:
+                if (!isPassable(currentX + 1, currentY)) {
+                    direction[enemy] = LEFT;
+                    return getMove(-1, 0);
+                }
+                return getMove(1, 0);
+            default:
+                return getMove(0, 0);
+        }
+    }
+
+    /**
+     * Works out the move of a targeting enemy that goes straight for the player, vertically first.
+     *
+     * @param enemy   index of the enemy.
+     * @param playerX coordinate of the player.
+     * @param playerY coordinate of the player.
+     * @return the move.
+     */
+    private int getTargetingMove(int enemy, int playerX, int playerY) {
+        int currentX = x[enemy];
+        int currentY = y[enemy];
+        int movementX = Integer.signum(playerX - currentX);
+        int movementY = Integer.signum(playerY - currentY);
+
+        if (isGround(currentX, currentY + movementY) && movementY != 0) {
+            return getMove(0, movementY);
+        } else if (isGround(currentX + movementX, currentY) && movementX != 0) {
+            return getMove(movementX, 0);
+        }
+        return getMove(0, 0);
+    }
+
+    /**
+     * Works out the move of a wall following enemy, the same way as WallFollowingEnemy.getNextMove.
+     *
+     * @param enemy index of the enemy.
+     * @return the move.
+     */
+    private int getWallFollowingMove(int enemy) {
+        int currentX = x[enemy];
+        int currentY = y[enemy];
+        int nextMove = NO_MOVE;
+        numberOfChecks = 0;
+
+        switch (direction[enemy]) {
+            case UP:
+                if (!isGround(currentX, currentY - 1)) {
+                    state[enemy] = HAS_TO_REDIRECT;
+                    if (isGround(currentX - 1, currentY)) {
+                        nextMove = getMove(-1, 0);
+                    } else if (isGround(currentX + 1, currentY)) {
+                        nextMove = getMove(1, 0);
+                    } else {
+                        return getMove(0, 1);
+                    }
+                }
+                if (nextMove == NO_MOVE) {
+                    nextMove = checkUpLeft(enemy, currentX, currentY);
+                }
+                break;
+            case DOWN:
+                if (!isGround(currentX, currentY + 1)) {
+                    state[enemy] = HAS_TO_REDIRECT;
+                    if (isGround(currentX + 1, currentY)) {
+                        nextMove = getMove(1, 0);
+                    } else if (isGround(currentX - 1, currentY)) {
+                        nextMove = getMove(-1, 0);
+                    } else {
+                        return getMove(0, -1);
+                    }
+                }
+                if (nextMove == NO_MOVE) {
+                    nextMove = checkDownRight(enemy, currentX, currentY);
+                }
+                break;
+            case RIGHT:
+                if (!isGround(currentX + 1, currentY)) {
+                    state[enemy] = HAS_TO_REDIRECT;
+                    if (isGround(currentX, currentY + 1)) {
+                        nextMove = getMove(0, 1);
+                    } else if (isGround(currentX, currentY - 1)) {
+                        nextMove = getMove(0, -1);
+                    } else {
+                        return getMove(-1, 0);
+                    }
+                }
+                if (nextMove == NO_MOVE) {
+                    nextMove = checkUpRight(enemy, currentX, currentY);
+                }
+                break;
+            case LEFT:
+                if (!isGround(currentX - 1, currentY)) {
+                    state[enemy] = HAS_TO_REDIRECT;
+                    if (isGround(currentX, currentY - 1)) {
+                        nextMove = getMove(0, -1);
+                    } else if (isGround(currentX, currentY + 1)) {
+                        nextMove = getMove(0, 1);
+                    } else {
+                        return getMove(1, 0);
+                    }
+                }
+                if (nextMove == NO_MOVE) {
+                    nextMove = checkDownLeft(enemy, currentX, currentY);
+                }
+                break;
+            default:
+                return getMove(0, 0);
+        }
+        if (nextMove != NO_MOVE) {
+            return nextMove;
+        }
+        return getForwardMove(direction[enemy]);
+    }
+
+    /**
+     * Checks the cell up and left of a wall following enemy for a wall to follow.
+     *
+     * @param enemy    index of the enemy.
+     * @param currentX coordinate of the enemy.
+     * @param currentY coordinate of the enemy.
+     * @return the move, or NO_MOVE if none was found.
+     */
+    private int checkUpLeft(int enemy, int currentX, int currentY) {
+        if (!isGround(currentX - 1, currentY - 1)) {
+            if (direction[enemy] == RIGHT) {
+                if (isGround(currentX, currentY - 1)) {
+                    return getMove(0, -1);
+                } else if (isGround(currentX - 1, currentY)) {
+                    return getMove(-1, 0);
+                }
+            } else if (isGround(currentX - 1, currentY)) {
+                return getMove(-1, 0);
+            } else if (isGround(currentX, currentY - 1)) {
+                return getMove(0, -1);
+            }
+        }
+        if (isLastCheck(enemy) || direction[enemy] == RIGHT) {
+            return NO_MOVE;
+        }
+        return checkUpRight(enemy, currentX, currentY);
+    }
+
+    /**
+     * Checks the cell down and left of a wall following enemy for a wall to follow.
+     *
+     * @param enemy    index of the enemy.
+     * @param currentX coordinate of the enemy.
+     * @param currentY coordinate of the enemy.
+     * @return the move, or NO_MOVE if none was found.
+     */
+    private int checkDownLeft(int enemy, int currentX, int currentY) {
+        if (!isGround(currentX - 1, currentY + 1)) {
+            if (direction[enemy] == RIGHT) {
+                if (isGround(currentX, currentY + 1)) {
+                    return getMove(0, 1);
+                } else if (isGround(currentX - 1, currentY)) {
+                    return getMove(-1, 0);
+                }
+            } else if (isGround(currentX - 1, currentY)) {
+                return getMove(-1, 0);
+            } else if (isGround(currentX, currentY + 1)) {
+                return getMove(0, 1);
+            }
+        }
+        if (isLastCheck(enemy) || direction[enemy] == UP) {
+            return NO_MOVE;
+        }
+        return checkUpLeft(enemy, currentX, currentY);
+    }
+
+    /**
+     * Checks the cell up and right of a wall following enemy for a wall to follow.
+     *
+     * @param enemy    index of the enemy.
+     * @param currentX coordinate of the enemy.
+     * @param currentY coordinate of the enemy.
+     * @return the move, or NO_MOVE if none was found.
+     */
+    private int checkUpRight(int enemy, int currentX, int currentY) {
+        if (!isGround(currentX + 1, currentY - 1)) {
+            if (direction[enemy] == LEFT) {
+                if (isGround(currentX, currentY - 1)) {
+                    return getMove(0, -1);
+                } else if (isGround(currentX + 1, currentY)) {
+                    return getMove(1, 0);
+                }
+            } else if (isGround(currentX + 1, currentY)) {
+                return getMove(1, 0);
+            } else if (isGround(currentX, currentY - 1)) {
+                return getMove(0, -1);
+            }
+        }
+        if (isLastCheck(enemy) || direction[enemy] == DOWN) {
+            return NO_MOVE;
+        }
+        return checkDownRight(enemy, currentX, currentY);
+    }
+
+    /**
+     * Checks the cell down and right of a wall following enemy for a wall to follow.
+     *
+     * @param enemy    index of the enemy.
+     * @param currentX coordinate of the enemy.
+     * @param currentY coordinate of the enemy.
+     * @return the move, or NO_MOVE if none was found.
+     */
+    private int checkDownRight(int enemy, int currentX, int currentY) {
+        if (!isGround(currentX + 1, currentY + 1)) {
+            if (direction[enemy] == LEFT) {
+                if (isGround(currentX, currentY + 1)) {
+                    return getMove(0, 1);
+                } else if (isGround(currentX + 1, currentY)) {
+                    return getMove(1, 0);
+                }
+            } else if (isGround(currentX + 1, currentY)) {
+                return getMove(1, 0);
+            } else if (isGround(currentX, currentY + 1)) {
+                return getMove(0, 1);
+            }
+        }
+        if (isLastCheck(enemy) || direction[enemy] == LEFT) {
+            return NO_MOVE;
+        }
+        return checkDownLeft(enemy, currentX, currentY);
+    }
+
+    /**
+     * Counts a diagonal check of a wall following enemy. The second check of an enemy that was not redirecting
+     * makes it redirect and ends the checks.
+     *
+     * @param enemy index of the enemy.
+     * @return True if the checks are over, else False.
+     */
+    private boolean isLastCheck(int enemy) {
+        numberOfChecks++;
+        if (numberOfChecks == 2 && (state[enemy] & HAS_TO_REDIRECT) == 0) {
+            state[enemy] = HAS_TO_REDIRECT;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves a wall following enemy, turning it towards its move and updating its redirection.
+     *
+     * @param enemy index of the enemy.
+     * @param move  the move.
+     */
+    private void applyWallFollowing(int enemy, int move) {
+        int moveX = move % 3 - 1;
+        int moveY = move / 3 - 1;
+        if (moveX > 0) {
+            direction[enemy] = RIGHT;
+        } else if (moveX < 0) {
+            direction[enemy] = LEFT;
+        } else if (moveY > 0) {
+            direction[enemy] = DOWN;
+        } else if (moveY < 0) {
+            direction[enemy] = UP;
+        }
+        if ((state[enemy] & HAS_REDIRECTED) == 0) {
+            state[enemy] |= HAS_REDIRECTED;
+        } else {
+            state[enemy] = 0;
+        }
+        apply(enemy, move);
+    }
+
+    /**
+     * Moves an enemy.
+     *
+     * @param enemy index of the enemy.
+     * @param move  the move.
+     */
+    private void apply(int enemy, int move) {
+        x[enemy] += move % 3 - 1;
+        y[enemy] += move / 3 - 1;
+        lastMove[enemy] = (byte) move;
+    }
+
+    /**
+     * Checks if an enemy can walk on a cell.
+     *
+     * @param cellX coordinate of the cell.
+     * @param cellY coordinate of the cell.
+     * @return True if the cell is ground, else False.
+     */
+    private boolean isGround(int cellX, int cellY) {
+        return walkability.isWalkable(WalkabilityMap.ENEMY, cellX, cellY);
+    }
+
+    /**
+     * Checks if a cell is passable.
+     *
+     * @param cellX coordinate of the cell.
+     * @param cellY coordinate of the cell.
+     * @return True if the cell is passable, else False.
+     */
+    private boolean isPassable(int cellX, int cellY) {
+        return walkability.isWalkable(WalkabilityMap.PLAYER, cellX, cellY);
+    }
+
+    /**
+     * Doubles the size of the arrays.
+     */
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        type = Arrays.copyOf(type, capacity);
+        direction = Arrays.copyOf(direction, capacity);
+        state = Arrays.copyOf(state, capacity);
+        lastMove = Arrays.copyOf(lastMove, capacity);
+        for (int i = 0; i < TYPES; i++) {
+            members[i] = Arrays.copyOf(members[i], capacity);
+        }
+    }
+
+    /**
+     * Encodes a move in a single number.
+     *
+     * @param moveX horizontal direction of the move, -1, 0 or 1.
+     * @param moveY vertical direction of the move, -1, 0 or 1.
+     * @return the move, between 0 and 8.
+     */
+    private static int getMove(int moveX, int moveY) {
+        return (moveY + 1) * 3 + moveX + 1;
+    }
+
+    /**
+     * Gets the move one cell ahead in a direction.
+     *
+     * @param enemyDirection the direction.
+     * @return the move.
+     */
+    private static int getForwardMove(int enemyDirection) {
+        switch (enemyDirection) {
+            case UP:
+                return getMove(0, -1);
+            case DOWN:
+                return getMove(0, 1);
+            case RIGHT:
+                return getMove(1, 0);
+            case LEFT:
+                return getMove(-1, 0);
+            default:
+                return getMove(0, 0);
+        }
+    }
+}
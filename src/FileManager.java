@@ -8,7 +8,9 @@ public abstract class FileManager {
     static final String SAVE_FILE_PATH = "saves/";
     static final String PROFILE_FILE_PATH = "profiles/";
     static final String MAP_FILE_PATH = "maps/";
+    static final String PERFORMANCE_FILE_PATH = "performance/";
     static final String FILE_EXTENSION = ".txt";
     static final String SAVE_STATE = "SaveState";
     static final String GLOBAL_SCORES = "globalScores";
+    static final String PERFORMANCE_LOG = "performanceLog";
 }
@@ -215,7 +215,7 @@ public class FileReader extends FileManager {
 
         switch (object) {
             case "Token":
-                Map.getInstance().getItemArray().add(new Token(new Point2D(x, y)));
+                Map.getInstance().addItem(new Token(new Point2D(x, y)));
                 return;
             case "Player":
                 Map.getInstance().getPlayer().setPosition(new Point2D(x, y));
@@ -224,19 +224,19 @@ public class FileReader extends FileManager {
                 String type = attributes[3];
                 if (type.equals("SL")) {
                     String direction = attributes[4];
-                    Map.getInstance().getEnemyArray().add(new StraightLineEnemy(new Point2D(x, y), direction));
+                    Map.getInstance().addEnemy(new StraightLineEnemy(new Point2D(x, y), direction));
                 } else if (type.equals("WF")) {
                     String direction = attributes[4];
-                    Map.getInstance().getEnemyArray().add(new WallFollowingEnemy(new Point2D(x, y), direction));
+                    Map.getInstance().addEnemy(new WallFollowingEnemy(new Point2D(x, y), direction));
                 } else if (type.equals("DT")) {
-                    Map.getInstance().getEnemyArray().add(new DumbTargetingEnemy(new Point2D(x, y)));
+                    Map.getInstance().addEnemy(new DumbTargetingEnemy(new Point2D(x, y)));
                 } else if (type.equals("ST")) {
-                    Map.getInstance().getEnemyArray().add(new SmartTargetingEnemy(new Point2D(x, y)));
+                    Map.getInstance().addEnemy(new SmartTargetingEnemy(new Point2D(x, y)));
                 }
                 return;
             case "Key":
                 String keyColour = attributes[3];
-                Map.getInstance().getItemArray().add(new Key(new Point2D(x, y), keyColour));
+                Map.getInstance().addItem(new Key(new Point2D(x, y), keyColour));
                 return;
             case "TDoor":
                 int numberOfTokens = Integer.parseInt(attributes[3]);
@@ -263,9 +263,9 @@ public class FileReader extends FileManager {
             case "Boots":
                 String bootType = attributes[3];
                 if (bootType.equals("Fire")) {
-                    Map.getInstance().getItemArray().add(new FireBoots(new Point2D(x, y)));
+                    Map.getInstance().addItem(new FireBoots(new Point2D(x, y)));
                 } else if (bootType.equals("Water")) {
-                    Map.getInstance().getItemArray().add(new WaterBoots(new Point2D(x, y)));
+                    Map.getInstance().addItem(new WaterBoots(new Point2D(x, y)));
                 }
                 return;
             default:
@@ -284,16 +284,16 @@ public class FileReader extends FileManager {
 
         switch (object) {
             case "Key":
-                Map.getInstance().getPlayer().getInventory().add(new Key(new Point2D(0, 0), attributes[2]));
+                Map.getInstance().getPlayer().addItem(new Key(new Point2D(0, 0), attributes[2]));
                 return;
             case "Token":
-                Map.getInstance().getPlayer().getInventory().add(new Token(new Point2D(0, 0)));
+                Map.getInstance().getPlayer().addItem(new Token(new Point2D(0, 0)));
                 return;
             case "FireBoots":
-                Map.getInstance().getPlayer().getInventory().add(new FireBoots(new Point2D(0, 0)));
+                Map.getInstance().getPlayer().addItem(new FireBoots(new Point2D(0, 0)));
                 return;
             case "WaterBoots":
-                Map.getInstance().getPlayer().getInventory().add(new WaterBoots(new Point2D(0, 0)));
+                Map.getInstance().getPlayer().addItem(new WaterBoots(new Point2D(0, 0)));
                 return;
             default:
                 System.out.println("Could Not Put " + object + " In Inventory");
@@ -1,4 +1,5 @@
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -48,6 +49,24 @@ public class FileWriter extends FileManager {
         }
     }
 
+    /**
+     * Appends a performance report to the performance log.
+     *
+     * @param report report to be written.
+     */
+    public static void writePerformanceLog(String report) {
+        new File(PERFORMANCE_FILE_PATH).mkdirs();
+        String path = PERFORMANCE_FILE_PATH + PERFORMANCE_LOG + FILE_EXTENSION;
+
+        try {
+            BufferedWriter writer = new BufferedWriter(new java.io.FileWriter(path, true));
+            writer.write(report);
+            writer.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Writes the parsed in data to the file at the parsed in file path.
      *
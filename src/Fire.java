@@ -1,8 +1,5 @@
 import javafx.scene.image.Image;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-
 /**
  * This Class models a Fire Cell.
  *
@@ -20,11 +17,7 @@ public class Fire extends Interactable {
      */
     public Fire() {
         this.isPassable = true;
-        try {
-            artAsset = new Image(new FileInputStream(filePath));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        artAsset = AssetRegistry.getInstance().getImage(filePath);
     }
 
     /**
@@ -67,11 +60,6 @@ public class Fire extends Interactable {
      */
     @Override
     public boolean playerHasItem() {
-        for (Item item : Map.getInstance().getPlayer().getInventory()) {
-            if (item.getClass() == FireBoots.class) {
-                return true;
-            }
-        }
-        return false;
+        return Map.getInstance().getPlayer().hasFireBoots();
     }
 }
@@ -1,9 +1,6 @@
 import javafx.geometry.Point2D;
 import javafx.scene.image.Image;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-
 /**
  * This Class models a pair of fire walking boots.
  *
@@ -25,11 +22,7 @@ public class FireBoots extends Item {
         this.position = position;
         this.pickedUp = false;
 
-        try {
-            artAsset = new Image(new FileInputStream(filePath));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        artAsset = AssetRegistry.getInstance().getImage(filePath);
     }
 
     /**
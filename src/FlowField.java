@@ -0,0 +1,292 @@
+import javafx.geometry.Point2D;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the distance from the ground cells of the map to the player, so every targeting enemy can
+ * read its next step without running its own search.
+ * <p>
+ * The distances come from a Dijkstra search starting from the player, using the same costs as the A* search of
+ * the smart enemies: 10 for a straight step and 14 for a diagonal one. The search keeps its state between
+ * requests and only goes as far as the enemies asking for a move need, so enemies close to the player cost
+ * little even on a large map.
+ * <p>
+ * When the player moves nearly every distance changes, so the search starts again from the new position, which
+ * clears nothing. When a door opens distances can only get shorter: the opened cell is put back in the search
+ * and only the cells whose distance drops are visited again.
+ * <p>
+ * Enemies working out their moves in parallel take turns reading the field. The moves only depend on settled
+ * distances, so they do not depend on which enemy asked first.
+ */
+public class FlowField {
+    private static final int STRAIGHT_COST = 10;
+    private static final int DIAGONAL_COST = 14;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+    //The eight directions a step can take.
+    private static final int[] DIRECTION_X = {0, -1, 1, 0, -1, 1, -1, 1};
+    private static final int[] DIRECTION_Y = {-1, 0, 0, 1, -1, -1, 1, 1};
+    private Map map;
+    private WalkabilityMap walkability;
+    private int width;
+    private int height;
+    private int[] distance; //The best known distance of every cell reached by the current search.
+    private int[] reached; //The generation in which a cell was reached.
+    private int generation;
+    private IndexedMinHeap open; //The reached cells whose neighbours were not given their distance yet.
+    private int targetX = -1;
+    private int targetY = -1;
+    private boolean isStale = true;
+    private int computations;
+    private int repairs;
+    private long expandedCells;
+
+    /**
+     * Creates the flow field of a map. Nothing is computed until a move is asked for.
+     *
+     * @param map the map the field is computed on.
+     */
+    public FlowField(Map map) {
+        this.map = map;
+        open = new IndexedMinHeap(0);
+        map.addCellChangeListener(this::cellChanged);
+    }
+
+    /**
+     * Gets the step that brings an enemy closer to the player along a shortest path.
+     *
+     * @param x coordinate of the enemy.
+     * @param y coordinate of the enemy.
+     * @return the direction of the step, or null if there is no path to the player.
+     */
+    public synchronized Point2D getNextMove(int x, int y) {
+        int next = getNextStep(x, y);
+        if (next == -1) {
+            return null;
+        }
+        return new Point2D(next % width - x, next / width - y);
+    }
+
+    /**
+     * Gets the cell an enemy steps on to get closer to the player along a shortest path.
+     *
+     * @param x coordinate of the enemy.
+     * @param y coordinate of the enemy.
+     * @return index of the cell, the cell of the enemy if it stands on the player, or -1 if there is no path.
+     */
+    public synchronized int getNextStep(int x, int y) {
+        int ownDistance = getDistance(x, y);
+        if (ownDistance == -1) {
+            return -1;
+        }
+        if (ownDistance == 0) {
+            return y * width + x;
+        }
+
+        //Every cell closer to the player than the enemy is settled now, and the best step goes to one of them.
+        //Straight steps are checked first, so they are preferred over diagonal ones of the same cost.
+        int bestCost = UNREACHED;
+        int bestDirection = -1;
+        for (int i = 0; i < DIRECTION_X.length; i++) {
+            int nextX = x + DIRECTION_X[i];
+            int nextY = y + DIRECTION_Y[i];
+            if (isInside(nextX, nextY)) {
+                int nextDistance = getKnownDistance(nextY * width + nextX);
+                if (nextDistance < ownDistance && nextDistance + getStepCost(i) < bestCost) {
+                    bestCost = nextDistance + getStepCost(i);
+                    bestDirection = i;
+                }
+            }
+        }
+
+        if (bestDirection == -1) {
+            return -1;
+        }
+        return (y + DIRECTION_Y[bestDirection]) * width + x + DIRECTION_X[bestDirection];
+    }
+
+    /**
+     * Gets the distance from a cell to the player, 10 for each straight step and 14 for each diagonal one.
+     * The search goes on until the distance of the cell can not get any shorter.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     * @return the distance, or -1 if the player can not be reached from the cell.
+     */
+    public synchronized int getDistance(int x, int y) {
+        update();
+        if (!isInside(x, y)) {
+            return -1;
+        }
+        int cell = y * width + x;
+        while (!open.isEmpty() && open.peekKey() < getKnownDistance(cell)) {
+            expand();
+        }
+        int cellDistance = getKnownDistance(cell);
+        return cellDistance == UNREACHED ? -1 : cellDistance;
+    }
+
+    /**
+     * Get the number of times the search was started from the player.
+     *
+     * @return the number of computations.
+     */
+    public int getComputations() {
+        return computations;
+    }
+
+    /**
+     * Get the number of opened cells that were repaired into the search instead of starting it again.
+     *
+     * @return the number of repairs.
+     */
+    public int getRepairs() {
+        return repairs;
+    }
+
+    /**
+     * Get the number of cells expanded by the search since the field was created.
+     *
+     * @return the number of expanded cells.
+     */
+    public long getExpandedCells() {
+        return expandedCells;
+    }
+
+    /**
+     * Starts the search again if the player moved or a cell was closed since it was started.
+     */
+    private void update() {
+        Point2D player = map.getPlayer().getPosition();
+        int playerX = (int) player.getX();
+        int playerY = (int) player.getY();
+
+        if (playerX != targetX || playerY != targetY || isStale) {
+            targetX = playerX;
+            targetY = playerY;
+            isStale = false;
+            restart();
+        }
+    }
+
+    /**
+     * Forgets every distance and starts the search from the player.
+     */
+    private void restart() {
+        walkability = map.getWalkability();
+        width = walkability.getWidth();
+        height = walkability.getHeight();
+        if (distance == null || distance.length != width * height) {
+            distance = new int[width * height];
+            reached = new int[width * height];
+            open = new IndexedMinHeap(width * height);
+            generation = 0;
+        }
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(reached, 0);
+            generation = 0;
+        }
+        open.clear();
+        generation++;
+        computations++;
+
+        //The enemies can not reach a player that stands on anything but ground.
+        if (walkability.isWalkable(WalkabilityMap.ENEMY, targetX, targetY)) {
+            lower(targetY * width + targetX, 0);
+        }
+    }
+
+    /**
+     * Takes the open cell closest to the player, its distance is final, and lowers the distance of its neighbours.
+     */
+    private void expand() {
+        int cell = open.poll();
+        int cost = distance[cell];
+        int x = cell % width;
+        int y = cell / width;
+        expandedCells++;
+
+        for (int i = 0; i < DIRECTION_X.length; i++) {
+            int nextX = x + DIRECTION_X[i];
+            int nextY = y + DIRECTION_Y[i];
+            if (walkability.isWalkable(WalkabilityMap.ENEMY, nextX, nextY)) {
+                lower(nextY * width + nextX, cost + getStepCost(i));
+            }
+        }
+    }
+
+    /**
+     * Lowers the distance of a cell if the new one is shorter, putting the cell back in the search.
+     *
+     * @param cell     index of the cell.
+     * @param newValue the new distance.
+     */
+    private void lower(int cell, int newValue) {
+        if (newValue >= getKnownDistance(cell)) {
+            return;
+        }
+        distance[cell] = newValue;
+        reached[cell] = generation;
+        if (open.contains(cell)) {
+            open.decreaseKey(cell, newValue);
+        } else {
+            open.insert(cell, newValue);
+        }
+    }
+
+    /**
+     * Called by the map when a cell was replaced. A cell that became ground is repaired into the current search,
+     * any other change starts the search again on the next request.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     */
+    private synchronized void cellChanged(int x, int y) {
+        if (isStale || distance == null || map.getWalkability() != walkability
+                || !walkability.isWalkable(WalkabilityMap.ENEMY, x, y)) {
+            isStale = true;
+            return;
+        }
+
+        //The opened cell is reached through the best of its neighbours, the search spreads the change from there.
+        int cell = y * width + x;
+        for (int i = 0; i < DIRECTION_X.length; i++) {
+            int nextX = x + DIRECTION_X[i];
+            int nextY = y + DIRECTION_Y[i];
+            if (isInside(nextX, nextY) && getKnownDistance(nextY * width + nextX) != UNREACHED) {
+                lower(cell, getKnownDistance(nextY * width + nextX) + getStepCost(i));
+            }
+        }
+        repairs++;
+    }
+
+    /**
+     * Gets the best distance of a cell known to the current search.
+     *
+     * @param cell index of the cell.
+     * @return the distance, UNREACHED if the search did not reach the cell.
+     */
+    private int getKnownDistance(int cell) {
+        return reached[cell] == generation ? distance[cell] : UNREACHED;
+    }
+
+    /**
+     * Checks if a cell is on the map.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     * @return True if the cell is on the map, else False.
+     */
+    private boolean isInside(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    /**
+     * Gets the cost of a step.
+     *
+     * @param direction index of the direction of the step.
+     * @return the cost of the step.
+     */
+    private static int getStepCost(int direction) {
+        return DIRECTION_X[direction] != 0 && DIRECTION_Y[direction] != 0 ? DIAGONAL_COST : STRAIGHT_COST;
+    }
+}
@@ -0,0 +1,103 @@
+import javafx.animation.AnimationTimer;
+import javafx.scene.image.ImageView;
+
+import java.util.ArrayList;
+
+/**
+ * This class is the single frame loop of the game. On every pulse it moves the camera and the enemies and
+ * advances the player's sprite animation, all from the same pulse timestamp.
+ */
+public class FrameLoop extends AnimationTimer {
+    private ArrayList<SpriteMotion> motions;
+    private ArrayList<SpriteMotion> finished;
+    private SpriteAnimation playerAnimation;
+    private ImageView playerSprite;
+    private PerformanceOverlay overlay;
+    private long lastPulse = 0;
+    private long frameTime = 0;
+
+    /**
+     * Creates a frame loop with nothing to update.
+     */
+    public FrameLoop() {
+        motions = new ArrayList<>();
+        finished = new ArrayList<>();
+    }
+
+    /**
+     * Adds a motion to be updated on every pulse while it is running.
+     *
+     * @param motion The motion.
+     */
+    public void addMotion(SpriteMotion motion) {
+        motions.add(motion);
+    }
+
+    /**
+     * Set the animation of the player's sprite.
+     *
+     * @param playerAnimation The animation.
+     * @param playerSprite    The view the frames are shown on.
+     */
+    public void setPlayerAnimation(SpriteAnimation playerAnimation, ImageView playerSprite) {
+        this.playerAnimation = playerAnimation;
+        this.playerSprite = playerSprite;
+    }
+
+    /**
+     * Set the overlay the frame times are reported to.
+     *
+     * @param overlay The performance overlay.
+     */
+    public void setOverlay(PerformanceOverlay overlay) {
+        this.overlay = overlay;
+    }
+
+    /**
+     * Get the time between the last two pulses.
+     *
+     * @return The frame time in nanoseconds.
+     */
+    public long getFrameTime() {
+        return frameTime;
+    }
+
+    /**
+     * Updates everything that moves for the current pulse.
+     *
+     * @param now The timestamp of the current pulse in nanoseconds.
+     */
+    @Override
+    public void handle(long now) {
+        if (lastPulse != 0) {
+            frameTime = now - lastPulse;
+            if (overlay != null) {
+                overlay.record(PerformanceOverlay.FRAME, frameTime);
+            }
+        }
+        lastPulse = now;
+
+        for (SpriteMotion motion : motions) {
+            if (motion.update(now)) {
+                finished.add(motion);
+            }
+        }
+
+        if (playerAnimation != null && !playerAnimation.hasPlayedOnce()) {
+            playerAnimation.update(now);
+            playerSprite.setImage(playerAnimation.getImage());
+        }
+
+        //The actions run last, as they may start new motions for the next pulse.
+        for (SpriteMotion motion : finished) {
+            if (motion.getOnFinished() != null) {
+                motion.getOnFinished().run();
+            }
+        }
+        finished.clear();
+
+        if (overlay != null) {
+            overlay.refresh(now);
+        }
+    }
+}
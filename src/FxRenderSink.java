@@ -0,0 +1,491 @@
+import java.io.File;
+
+import javafx.animation.FadeTransition;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.media.AudioClip;
+import javafx.scene.paint.Color;
+import javafx.util.Duration;
+
+/**
+ * This class puts the game on screen with JavaFX. The cells are pre-rendered in chunks and kept by a scrolling
+ * layer filled from them, the items are drawn on a canvas and the enemies are pooled sprites, all of them moved
+ * by a single frame loop.
+ */
+public class FxRenderSink implements RenderSink {
+    private final String SFX_DEATH = "sound/Death.mp3";
+    private final String SFX_GOAL = "sound/Goal.mp3";
+    private static final int GRID_CELL_SIDE = MapRenderer.GRID_CELL_SIDE;
+    // The number of cells on the side of a pre-rendered chunk and the memory the chunks can take.
+    private static final int CHUNK_CELLS = 8;
+    private static final long CHUNK_MEMORY_CAP = 64L * 1024 * 1024;
+    private final int WINDOW_WIDTH;
+    private final int WINDOW_HEIGHT;
+    private int CANVAS_WIDTH;
+    private int CANVAS_HEIGHT;
+    private int renderedCellsX;
+    private int renderedCellsY;
+    private Canvas gameMap; //The canvas on which we draw the map.
+    private ScrollingMapLayer scrollingMap; //Holds the cells when the scrolling mode is on.
+    private boolean isScrolling = true;
+    private MapChunkCache chunkCache; //Pre-rendered cells, the scrolling layer is filled from them.
+    private boolean isUsingChunks = true;
+    private Pane enemiesParent; //We are gonna place the enemies here
+    private EnemySpritePool enemySprites; //The sprites of the enemies on screen, reused across moves.
+    private Pane gameGraphics; //This will hold both the game map and the enemies
+    private Canvas blackPause;
+    private InGameMenus menus;
+    private Minimap minimap;
+    private FrameLoop frameLoop; //Drives every animation of the game from a single pulse.
+    private SpriteMotion cameraMotion;
+    private ImageView player;
+    private Image wall;
+    private TextureAtlas atlas; //Holds the art of the cells, items and enemies in a few large textures.
+    private Pane root;
+    //The largest side of the minimap on screen.
+    private static final int MINIMAP_SIZE = 200;
+
+    /**
+     * Creates a sink drawing on a pane.
+     *
+     * @param root          pane on which the game is rendered.
+     * @param WINDOW_WIDTH  of the window.
+     * @param WINDOW_HEIGHT of the window.
+     */
+    public FxRenderSink(Pane root, final int WINDOW_WIDTH, final int WINDOW_HEIGHT) {
+        this.root = root;
+        this.WINDOW_WIDTH = WINDOW_WIDTH;
+        this.WINDOW_HEIGHT = WINDOW_HEIGHT;
+        CANVAS_WIDTH = (WINDOW_WIDTH + 2 * GRID_CELL_SIDE);
+        CANVAS_HEIGHT = (WINDOW_HEIGHT + 2 * GRID_CELL_SIDE);
+    }
+
+    /**
+     * Builds the nodes of the game and starts the frame loop.
+     *
+     * @param renderer the renderer that draws on the sink.
+     * @param cellsX   number of cells rendered horizontally.
+     * @param cellsY   number of cells rendered vertically.
+     */
+    @Override
+    public void attach(MapRenderer renderer, int cellsX, int cellsY) {
+        renderedCellsX = cellsX;
+        renderedCellsY = cellsY;
+        PerformanceOverlay performanceOverlay = renderer.getPerformanceOverlay();
+
+        frameLoop = new FrameLoop();
+        frameLoop.setOverlay(performanceOverlay);
+        wall = AssetRegistry.getInstance().getImage("assets/images/Wall.png");
+        atlas = AssetRegistry.getInstance().getAtlas();
+        enemiesParent = new Pane();
+        enemySprites = new EnemySpritePool(enemiesParent, frameLoop, atlas);
+        gameMap = new Canvas(CANVAS_WIDTH, CANVAS_HEIGHT);
+        chunkCache = new MapChunkCache(CHUNK_CELLS, GRID_CELL_SIDE, CHUNK_MEMORY_CAP);
+        scrollingMap = new ScrollingMapLayer(cellsX, cellsY, GRID_CELL_SIDE, chunkCache);
+        gameGraphics = new Pane(scrollingMap.getNode(), gameMap, enemiesParent);
+        gameMap.setTranslateX(-GRID_CELL_SIDE);
+        gameMap.setTranslateY(-GRID_CELL_SIDE);
+        scrollingMap.getNode().setTranslateX(-GRID_CELL_SIDE);
+        scrollingMap.getNode().setTranslateY(-GRID_CELL_SIDE);
+
+        blackPause = new Canvas();
+        blackPause.setWidth(CANVAS_WIDTH);
+        blackPause.setHeight(CANVAS_HEIGHT);
+        GraphicsContext gc = blackPause.getGraphicsContext2D();
+
+        gc.setFill(new Color(0, 0, 0, 0.6f));
+
+        menus = new InGameMenus(WINDOW_WIDTH, WINDOW_HEIGHT, renderer);
+
+        cameraMotion = new SpriteMotion(gameGraphics);
+        frameLoop.addMotion(cameraMotion);
+
+        player = new ImageView();
+        player.setTranslateY(-10);
+        minimap = new Minimap(renderer.getMap(), MINIMAP_SIZE);
+        root.getChildren().addAll(gameGraphics, player, minimap.getNode(), blackPause, performanceOverlay.getNode());
+        frameLoop.start();
+    }
+
+    /**
+     * Draws the cells on the canvas, or on the scrolling layer when the scrolling mode is on.
+     *
+     * @param map     the cells of the map.
+     * @param originX x coordinate of the cell drawn at the top left.
+     * @param originY y coordinate of the cell drawn at the top left.
+     * @return the number of cells that had to be painted.
+     */
+    @Override
+    public int drawMap(Cell[][] map, int originX, int originY) {
+        // Get the Graphic Context of the canvas. This is what we draw on.
+        GraphicsContext gc = gameMap.getGraphicsContext2D();
+        gc.clearRect(0, 0, gameMap.getWidth(), gameMap.getHeight());
+
+        if (isScrolling) {
+            int paintedBefore = scrollingMap.getCellsPainted();
+            scrollingMap.update(map, wall, originX, originY);
+            return scrollingMap.getCellsPainted() - paintedBefore;
+        }
+        if (isUsingChunks) {
+            int paintedBefore = chunkCache.getCellsPainted();
+            chunkCache.draw(gc, map, wall, originX, originY, renderedCellsX, renderedCellsY);
+            return chunkCache.getCellsPainted() - paintedBefore;
+        }
+
+        for (int x = 0; x < renderedCellsX; x++) {
+            for (int y = 0; y < renderedCellsY; y++) {
+                drawCell(map, x, y, originX, originY, gc);
+            }
+        }
+        return renderedCellsX * renderedCellsY;
+    }
+
+    /**
+     * Draw the cell at the respective coordinates.
+     *
+     * @param map     the cells of the map.
+     * @param x       coordinate of the point we are drawing on the screen.
+     * @param y       coordinate of the point we are drawing on the screen.
+     * @param originX x coordinate of the cell drawn at the top left.
+     * @param originY y coordinate of the cell drawn at the top left.
+     * @param gc      graphics context of the game.
+     **/
+    private void drawCell(Cell[][] map, int x, int y, int originX, int originY, GraphicsContext gc) {
+        Image cell = wall;
+
+        try {
+            cell = map[y + originY][x + originX].getImage();
+        } catch (ArrayIndexOutOfBoundsException ignored) {
+        }
+
+        double xCoord = x * GRID_CELL_SIDE;
+        double yCoord = y * GRID_CELL_SIDE;
+        drawSprite(gc, cell, xCoord, yCoord);
+    }
+
+    /**
+     * Draw an image, taking it from the texture atlas when it was packed in it.
+     *
+     * @param gc    graphics context of the game.
+     * @param image image to be drawn.
+     * @param x     coordinate of the point we are drawing on the canvas.
+     * @param y     coordinate of the point we are drawing on the canvas.
+     */
+    private void drawSprite(GraphicsContext gc, Image image, double x, double y) {
+        AtlasRegion region = atlas.getRegion(image);
+
+        if (region == null) {
+            gc.drawImage(image, x, y);
+        } else {
+            gc.drawImage(region.getPage(), region.getX(), region.getY(), region.getWidth(), region.getHeight(),
+                    x, y, region.getWidth(), region.getHeight());
+        }
+    }
+
+    /**
+     * Marks a cell of the map as changed in the scrolling layer and the chunks.
+     *
+     * @param map the cells of the map.
+     * @param x   coordinate of the cell on the map.
+     * @param y   coordinate of the cell on the map.
+     */
+    @Override
+    public void invalidateCell(Cell[][] map, int x, int y) {
+        scrollingMap.invalidate(x, y);
+        chunkCache.invalidate(map, wall, x, y);
+    }
+
+    /**
+     * Marks a cell of the minimap as changed.
+     *
+     * @param x coordinate of the cell on the map.
+     * @param y coordinate of the cell on the map.
+     */
+    @Override
+    public void invalidateMinimap(int x, int y) {
+        minimap.invalidate(x, y);
+    }
+
+    /**
+     * Marks the cells of the minimap the enemies left and entered during a turn as changed.
+     *
+     * @param turn the turn.
+     */
+    @Override
+    public void invalidateEnemyMoves(TurnResult turn) {
+        minimap.invalidateEnemyMoves(turn);
+    }
+
+    /**
+     * Paints the cells of the minimap that changed.
+     */
+    @Override
+    public void refreshMinimap() {
+        minimap.refresh();
+    }
+
+    /**
+     * Shows the minimap if it is hidden, hides it otherwise.
+     */
+    @Override
+    public void toggleMinimap() {
+        minimap.toggle();
+    }
+
+    /**
+     * Draws an item on the canvas.
+     *
+     * @param item the item.
+     * @param x    coordinate of the item on screen.
+     * @param y    coordinate of the item on screen.
+     */
+    @Override
+    public void drawItem(Item item, double x, double y) {
+        drawSprite(gameMap.getGraphicsContext2D(), item.getImage(), x, y);
+    }
+
+    /**
+     * Starts a pass of the enemy sprite pool.
+     */
+    @Override
+    public void beginEnemyPass() {
+        enemySprites.beginPass();
+    }
+
+    /**
+     * Places the sprite of an enemy, taking one from the pool if needed.
+     *
+     * @param enemy the enemy.
+     * @param x     coordinate of the sprite on screen.
+     * @param y     coordinate of the sprite on screen.
+     */
+    @Override
+    public void placeEnemy(Enemy enemy, double x, double y) {
+        ImageView enemyImage = enemySprites.acquire(enemy);
+        enemyImage.setTranslateX(x);
+        enemyImage.setTranslateY(y);
+    }
+
+    /**
+     * Ends the pass of the enemy sprite pool, returning the sprites of the enemies that left the screen.
+     */
+    @Override
+    public void endEnemyPass() {
+        enemySprites.endPass();
+    }
+
+    /**
+     * Execute the transition animation of an enemy's sprite.
+     *
+     * @param enemy   the enemy.
+     * @param byX     horizontal distance of the move.
+     * @param byY     vertical distance of the move.
+     * @param seconds duration of the animation.
+     */
+    @Override
+    public void moveEnemy(Enemy enemy, double byX, double byY, double seconds) {
+        ImageView enemyImage = enemySprites.getSprite(enemy);
+        if (enemyImage != null) {
+            enemySprites.getMotion(enemyImage).start(enemyImage.getTranslateX() + byX,
+                    enemyImage.getTranslateY() + byY, seconds);
+        }
+    }
+
+    /**
+     * Get the number of nodes holding the enemy sprites.
+     *
+     * @return the number of sprites.
+     */
+    @Override
+    public int getEnemySpriteCount() {
+        return enemiesParent.getChildren().size();
+    }
+
+    /**
+     * Moves the map and the enemies under the player.
+     *
+     * @param toX        horizontal offset of the view at the end of the move.
+     * @param toY        vertical offset of the view at the end of the move.
+     * @param seconds    duration of the move.
+     * @param onFinished called once the move is over.
+     */
+    @Override
+    public void moveCamera(double toX, double toY, double seconds, Runnable onFinished) {
+        cameraMotion.start(toX, toY, seconds);
+        cameraMotion.setOnFinished(onFinished);
+    }
+
+    /**
+     * Puts the map and the enemies back to their resting position.
+     */
+    @Override
+    public void resetCamera() {
+        gameGraphics.setTranslateX(0);
+        gameGraphics.setTranslateY(0);
+    }
+
+    /**
+     * Set the current sprite for the player.
+     *
+     * @param sprite current sprite.
+     */
+    @Override
+    public void setPlayerSprite(Image sprite) {
+        player.setImage(sprite);
+    }
+
+    /**
+     * Set the animation of the player's sprite, its frames are advanced by the frame loop.
+     *
+     * @param animation the animation.
+     */
+    @Override
+    public void setPlayerAnimation(SpriteAnimation animation) {
+        frameLoop.setPlayerAnimation(animation, player);
+    }
+
+    /**
+     * Mirrors the player's sprite or puts it back.
+     *
+     * @param isReversed true if the sprite faces right.
+     */
+    @Override
+    public void setPlayerReversed(boolean isReversed) {
+        player.setScaleX(isReversed ? -1 : 1);
+    }
+
+    /**
+     * Shows or hides the player.
+     *
+     * @param isVisible true to show the player.
+     */
+    @Override
+    public void setPlayerVisible(boolean isVisible) {
+        player.setOpacity(isVisible ? 1.0f : 0.0f);
+    }
+
+    /**
+     * Executes the death sequence.
+     */
+    @Override
+    public void showDeath() {
+        playAudioClip(SFX_DEATH);
+        gameGraphics.getChildren().remove(enemiesParent);
+        this.gameMap.getGraphicsContext2D().setFill(Color.BLACK);
+        this.gameMap.getGraphicsContext2D().fillRect(0, 0, CANVAS_WIDTH, CANVAS_HEIGHT);
+
+        Platform.runLater(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(1000);
+                    FadeTransition fd = new FadeTransition(Duration.millis(1000), player);
+                    fd.setFromValue(1.0f);
+                    fd.setToValue(0.0f);
+                    fd.play();
+                    fd.setOnFinished((ActionEvent e) -> {
+                        AnchorPane deathMenu = menus.getDeathMenu();
+                        deathMenu.setOpacity(0.0f);
+                        FadeTransition fdm = new FadeTransition(Duration.millis(1000), deathMenu);
+                        fdm.setFromValue(0.0f);
+                        fdm.setToValue(1.0f);
+                        fdm.play();
+                        root.getChildren().add(deathMenu);
+                    });
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    /**
+     * Executes the level completed sequence.
+     */
+    @Override
+    public void showGoal() {
+        playAudioClip(SFX_GOAL);
+        FadeTransition fd = new FadeTransition(Duration.millis(1000), player);
+        fd.setFromValue(1.0f);
+        fd.setToValue(0.0f);
+        fd.play();
+        blackPause.setOpacity(0.0f);
+        FadeTransition fdScreen = new FadeTransition(Duration.millis(1000), blackPause);
+        fdScreen.setFromValue(0.0f);
+        fdScreen.setToValue(1.0f);
+        fdScreen.play();
+        blackPause.getGraphicsContext2D().fillRect(0, 0, CANVAS_WIDTH, CANVAS_HEIGHT);
+
+        fd.setOnFinished((ActionEvent e) -> {
+            AnchorPane goalMenu = menus.getGoalMenu();
+            goalMenu.setOpacity(0.0f);
+            FadeTransition fdm = new FadeTransition(Duration.millis(1000), goalMenu);
+            fdm.setFromValue(0.0f);
+            fdm.setToValue(1.0f);
+            fdm.play();
+            root.getChildren().add(goalMenu);
+        });
+    }
+
+    /**
+     * Darkens the screen and shows the pause menu, or removes both.
+     *
+     * @param isPaused true to show the menu.
+     */
+    @Override
+    public void showPause(boolean isPaused) {
+        if (isPaused) {
+            blackPause.getGraphicsContext2D().fillRect(0, 0, CANVAS_WIDTH, CANVAS_HEIGHT);
+            root.getChildren().add(menus.getPauseMenu());
+        } else {
+            blackPause.getGraphicsContext2D().clearRect(0, 0, CANVAS_WIDTH, CANVAS_HEIGHT);
+            root.getChildren().remove(menus.getPauseMenu());
+        }
+    }
+
+    /**
+     * Stops the frame loop.
+     */
+    @Override
+    public void stop() {
+        frameLoop.stop();
+    }
+
+    /**
+     * Switch between drawing the cells from the pre-rendered chunks and drawing them one by one.
+     * Only used when the scrolling mode is off.
+     *
+     * @param isUsingChunks true to draw from the chunks.
+     */
+    public void setChunkMode(boolean isUsingChunks) {
+        this.isUsingChunks = isUsingChunks;
+    }
+
+    /**
+     * Switch between the scrolling mode, that only draws the cells that came into view,
+     * and redrawing every visible cell on each draw.
+     *
+     * @param isScrolling true to use the scrolling mode.
+     */
+    public void setScrollingMode(boolean isScrolling) {
+        this.isScrolling = isScrolling;
+        scrollingMap.getNode().setVisible(isScrolling);
+        scrollingMap.invalidateAll();
+    }
+
+    /**
+     * Plays the specified audio file, used for short SFX.
+     *
+     * @param path path to the audio file.
+     */
+    private void playAudioClip(String path) {
+        AudioClip soundFX = new AudioClip(new File(path).toURI().toString());
+        soundFX.play();
+    }
+}
@@ -1,4 +1,3 @@
-import javafx.concurrent.Task;
 import javafx.geometry.Point2D;
 import javafx.scene.Scene;
 import javafx.scene.input.KeyCode;
@@ -6,8 +5,6 @@ import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 
-import java.util.ArrayList;
-
 /**
  * The class is the main controller of the game.
  *
@@ -15,12 +12,16 @@ import java.util.ArrayList;
  */
 public class GameMaster {
     private MapRenderer render;
-    private Thread mainThread;
     private Scene scene;
     private Map map;
+    private TurnEngine engine; //Plays the turns, the game master only animates them.
     //test values for the player animation
     private SpriteAnimation player;
     private final float ANIMATION_TIME = 0.3f;
+    private final float MIN_ANIMATION_TIME = 0.1f; //The shortest a step gets when moves are waiting.
+    private float stepAnimationTime = ANIMATION_TIME; //How long the step of the current turn takes.
+    private InputQueue inputQueue; //The moves asked for while a turn was still being animated.
+    private boolean shortensAnimations = true;
     private TileMap tileset;
     private int playerOrientation = 0;
     //Variables used for the teleportation of the player.
@@ -39,6 +40,7 @@ public class GameMaster {
         player.setFrames(tileset.getSplices(0));
         player.setFrame(2);
         render.setPlayerSprite(player.getImage());
+        render.setPlayerAnimation(player);
     }
 
     /**
@@ -52,21 +54,46 @@ public class GameMaster {
         // Build the GUI
         // The root for the scene.
         Pane root = new StackPane();
-        render = new MapRenderer(root, WINDOW_WIDTH, WINDOW_HEIGHT, map, this);
-        this.map = map;
-        render.setAnimationTime(ANIMATION_TIME);
+        initialise(new FxRenderSink(root, WINDOW_WIDTH, WINDOW_HEIGHT), WINDOW_WIDTH, WINDOW_HEIGHT, map);
 
         // Create a scene from the GUI
         scene = new Scene(root, WINDOW_WIDTH, WINDOW_HEIGHT);
 
         // Register an event handler for key presses
         scene.addEventFilter(KeyEvent.KEY_PRESSED, this::processKeyEvent);
+    }
+
+    /**
+     * Initialise the game without a scene, e.g. on a RecordingRenderSink to play a level without a window.
+     * The player is moved with {@link #move(int, int)}.
+     *
+     * @param WINDOW_WIDTH  The width of the view.
+     * @param WINDOW_HEIGHT The height of the view.
+     * @param map           The map of the game.
+     * @param sink          The sink the game is rendered on.
+     */
+    public GameMaster(final int WINDOW_WIDTH, final int WINDOW_HEIGHT, Map map, RenderSink sink) {
+        initialise(sink, WINDOW_WIDTH, WINDOW_HEIGHT, map);
+    }
+
+    /**
+     * Create the renderer and the player's animation.
+     *
+     * @param sink          The sink the game is rendered on.
+     * @param WINDOW_WIDTH  The width of the view.
+     * @param WINDOW_HEIGHT The height of the view.
+     * @param map           The map of the game.
+     */
+    private void initialise(RenderSink sink, final int WINDOW_WIDTH, final int WINDOW_HEIGHT, Map map) {
+        this.map = map;
+        engine = new TurnEngine(map);
+        inputQueue = new InputQueue();
+        render = new MapRenderer(sink, WINDOW_WIDTH, WINDOW_HEIGHT, map, this);
+        render.setAnimationTime(ANIMATION_TIME);
 
         tileset = new TileMap(MapRenderer.GRID_CELL_SIDE);
-        mainThread = Thread.currentThread();
 
         createSpriteAnimation();
-        new Thread(animatePlayerSprite).start();
     }
 
     /**
@@ -75,247 +102,177 @@ public class GameMaster {
      * @param event The key event that was pressed.
      */
     public void processKeyEvent(KeyEvent event) {
-        if (render.canMove() && !isTeleporting) {
-            int x = 0;
-            int y = 0;
-            switch (event.getCode()) {
-                case RIGHT:
-                    x = 1;
-                    playerOrientation = 1;
-                    break;
-                case LEFT:
-                    x = -1;
-                    playerOrientation = 1;
-                    break;
-                case UP:
-                    y = -1;
-                    playerOrientation = 2;
-                    break;
-                case DOWN:
-                    y = 1;
-                    playerOrientation = 0;
-                    break;
-                default:
-                    break;
-            }
-            if (x != 0 || y != 0) {
-                processKeyPress(x, y);
-            }
+        switch (event.getCode()) {
+            case RIGHT:
+                move(1, 0);
+                break;
+            case LEFT:
+                move(-1, 0);
+                break;
+            case UP:
+                move(0, -1);
+                break;
+            case DOWN:
+                move(0, 1);
+                break;
+            default:
+                break;
         }
 
         if (event.getCode() == KeyCode.ESCAPE) {
             if (render.isPaused()) {
                 render.unPause();
+                playQueuedMoves();
             } else {
                 render.pause();
             }
+        } else if (event.getCode() == KeyCode.F3) {
+            render.togglePerformanceOverlay();
+        } else if (event.getCode() == KeyCode.F4) {
+            render.dumpPerformanceStats();
+        } else if (event.getCode() == KeyCode.M) {
+            render.toggleMinimap();
         }
         event.consume();
     }
 
     /**
-     * If the input is valid, this method will be called to perform the action on the player.
+     * Moves the player by one cell. The move is played at once if no turn is being animated, else it waits in the
+     * input queue until the turns before it are over on screen.
      *
      * @param x The x coordinate on which the player moves.
      * @param y The y coordinate on which the player moves.
+     * @return True if the input was accepted, else False.
      */
-    private void processKeyPress(int x, int y) {
-        Point2D player = map.getPlayer().getPosition();
-        Cell candidateCell = map.getCellArray()[(int) player.getY() + y][(int) player.getX() + x];
-        boolean canExecuteMove = false;
-
-        if (candidateCell.isPassable()) {
-            if (candidateCell.getClass() == Ground.class) {
-                canExecuteMove = true;
-            } else if (candidateCell.getClass() == Teleporter.class) {
-                isTeleporting = true;
-                //Initialise the values for the teleporter.
-                teleportCellLogic(x, y, (Teleporter) candidateCell);
-                canExecuteMove = true;
-            } else {
-                canExecuteMove = true;
-            }
-        } else if (candidateCell.getClass() == TokenDoor.class) {
-            canExecuteMove = tokenDoorAction(x, y, player, candidateCell);
-        } else if (candidateCell.getClass() == KeyDoor.class) {
-            canExecuteMove = keyDoorAction(x, y, player, candidateCell);
+    public boolean move(int x, int y) {
+        if ((x == 0 && y == 0) || render.isPaused() || engine.isOver()) {
+            return false;
         }
-        if (canExecuteMove) {
-            boolean willDie = checkCollisionWithEnemies(x, y);
-            executeAnimation();
-            render.animatePlayerMove(x, y, willDie);
+        if (!inputQueue.offer(x, y, System.nanoTime())) {
+            return false;
         }
+        playQueuedMoves();
+        return true;
     }
 
     /**
-     * Check if the player will encounter an enemy on his path.
-     *
-     * @param moveX The x coordinate on which the player moves.
-     * @param moveY The y coordinate on which the player moves.
-     * @return whether a player has collided into an enemy or not.
+     * Plays the moves waiting in the input queue, one turn at a time, as soon as the turn before is over on
+     * screen. The delay between a key press and the turn it plays is recorded by the renderer.
      */
-    public boolean checkCollisionWithEnemies(int moveX, int moveY) {
-        if (isTeleporting) {
-            return false;
-        }
-        Point2D player = Map.getInstance().getPlayer().getPosition();
-        int playerX = (int) player.getX();
-        int playerY = (int) player.getY();
-        ArrayList<Enemy> enemies = map.getEnemyArray();
-
-        for (Enemy enemy : enemies) {
-            Point2D pos = enemy.getPosition();
-            if ((moveX + playerX) == (int) pos.getX() && (moveY + playerY) == (int) pos.getY()) {
-                Point2D enemyMove = enemy.getNextMove();
-                if ((playerX) == (int) (pos.getX() + enemyMove.getX()) && (playerY) == (int) (pos.getY() + enemyMove.getY())) {
-                    return true;
-                }
+    public void playQueuedMoves() {
+        while (!inputQueue.isEmpty()) {
+            if (engine.isOver()) {
+                inputQueue.clear();
+                return;
+            }
+            if (!render.canMove() || render.isAnimating() || isTeleporting) {
+                return;
+            }
+            int x = inputQueue.getX();
+            int y = inputQueue.getY();
+            long inputTime = inputQueue.getInputTime();
+            inputQueue.poll();
+
+            if (x != 0) {
+                playerOrientation = 1;
+            } else if (y == -1) {
+                playerOrientation = 2;
+            } else {
+                playerOrientation = 0;
+            }
+            stepAnimationTime = getStepAnimationTime();
+            render.setAnimationTime(stepAnimationTime);
+            if (processKeyPress(x, y)) {
+                render.recordInputLatency(System.nanoTime() - inputTime);
             }
         }
-        return false;
     }
 
     /**
-     * Execute the animation for the player's sprite.
-     */
-    private void executeAnimation() {
-        player.setFrames(tileset.getSplices(playerOrientation));
-        player.setFrame(0);
-    }
-
-    /**
-     * Check the current tile the player stepped on.
+     * Get how long the step of a turn takes on screen. When moves are waiting in the input queue and the
+     * animations are shortened, the more there are the faster the player goes, so the screen catches up.
+     *
+     * @return The animation time in seconds.
      */
-    public void checkGround() {
-        Point2D pos = map.getPlayer().getPosition();
-
-        checkForItems(pos);
-        checkForEnemies(pos);
-
-        Cell currentCell = map.getCellArray()[(int) pos.getY()][(int) pos.getX()];
-
-        if (currentCell.getClass() == Fire.class) {
-            if (!((Fire) currentCell).playerHasItem()) {
-                death();
-            }
-        } else if (currentCell.getClass() == Water.class) {
-            if (!((Water) currentCell).playerHasItem()) {
-                death();
-            }
-        } else if (currentCell.getClass() == Goal.class) {
-            render.renderGoal();
-            Map.getInstance().updateProfile();
-            Map.getInstance().saveScore();
+    private float getStepAnimationTime() {
+        if (!shortensAnimations) {
+            return ANIMATION_TIME;
         }
+        return Math.max(MIN_ANIMATION_TIME, ANIMATION_TIME / (1 + inputQueue.size()));
     }
 
     /**
-     * Check if there are enemies on the current tile.
+     * Sets whether the steps are animated faster while moves are waiting in the input queue.
      *
-     * @param player The coordinates on which we are checking.
+     * @param shortensAnimations True to shorten the animations, False to always take the full animation time.
      */
-    public void checkForEnemies(Point2D player) {
-        if (isTeleporting) {
-            return;
-        }
-
-        int x = (int) player.getX();
-        int y = (int) player.getY();
-        ArrayList<Enemy> enemies = map.getEnemyArray();
-
-        for (Enemy enemy : enemies) {
-            Point2D pos = enemy.getPosition();
-            if (x == pos.getX() && y == pos.getY()) {
-                death();
-                break;
-            }
-        }
+    public void setShortensAnimations(boolean shortensAnimations) {
+        this.shortensAnimations = shortensAnimations;
     }
 
     /**
-     * Check the ground for items that can be picked up.
+     * If the input is valid, this method will be called to play the turn and animate it.
      *
-     * @param player The player's coordinates.
+     * @param x The x coordinate on which the player moves.
+     * @param y The y coordinate on which the player moves.
+     * @return True if the turn was played, False if the player could not move.
      */
-    public void checkForItems(Point2D player) {
-        if (isTeleporting) {
-            return;
+    private boolean processKeyPress(int x, int y) {
+        TurnResult result = engine.step(x, y);
+        if (!result.isPlayed()) {
+            return false;
+        }
+        if (result.hasOpenedDoor()) {
+            render.invalidateCell(result.getDoorX(), result.getDoorY());
         }
 
-        int x = (int) player.getX();
-        int y = (int) player.getY();
-        ArrayList<Item> items = map.getItemArray();
-
-        for (Item item : items) {
-            Point2D pos = item.getPosition();
-            if (x == pos.getX() && y == pos.getY()) {
-                map.getPlayer().getInventory().add(item);
-                items.remove(item);
-                break;
-            }
+        if (result.isTeleported()) {
+            isTeleporting = true;
+            //Initialise the values for the teleporter.
+            teleportCellLogic(result);
         }
+        executeAnimation();
+        render.animatePlayerMove(x, y, result.getOutcome() == TurnResult.CAUGHT, result);
+        return true;
     }
 
     /**
-     * The action for the colored key door.
-     *
-     * @param x             coordinate on which the player moves.
-     * @param y             coordinate on which the player moves.
-     * @param player        coordinates of the player.
-     * @param candidateCell cell we are checking.
-     * @return true if the move is executable.
+     * Execute the animation for the player's sprite.
      */
-    private boolean keyDoorAction(int x, int y, Point2D player, Cell candidateCell) {
-        if (((KeyDoor) candidateCell).open()) {
-            //Change the door into a Ground tile.
-            map.getCellArray()[(int) player.getY() + y][(int) player.getX() + x] = new Ground();
-            render.drawGame(0, 0);
-            return true;
-        }
-        return false;
+    private void executeAnimation() {
+        player.setDelay(render.getAnimationTime() / 3);
+        player.setFrames(tileset.getSplices(playerOrientation));
+        player.setFrame(0);
     }
 
-
     /**
-     * The action for the token door.
-     *
-     * @param x             coordinate on which the player moves.
-     * @param y             coordinate on which the player moves.
-     * @param player        coordinates of the player.
-     * @param candidateCell cell we are checking.
-     * @return true if the move is executable.
+     * Shows what the player found on the tile it stepped on, once the animation of the turn is over.
      */
-    private boolean tokenDoorAction(int x, int y, Point2D player, Cell candidateCell) {
-        int requiredTokens = ((TokenDoor) candidateCell).getNumberOfTokens();
-        int numOfTokens = 0;
-        ArrayList<Item> inventory = map.getPlayer().getInventory();
-
-        for (Item item : inventory) {
-            if (item.getClass() == Token.class) {
-                numOfTokens++;
-                //If it found all the tokens, stop the search.
-                if (numOfTokens == requiredTokens) {
-                    //Change the door into a Ground tile.
-                    map.getCellArray()[(int) player.getY() + y][(int) player.getX() + x] = new Ground();
-                    render.drawGame(0, 0);
-                    return true;
-                }
-            }
+    public void checkGround() {
+        TurnResult result = engine.getResult();
+        if (result.getPickedItem() != null) {
+            render.invalidateMinimap(result.getEndX(), result.getEndY());
+        }
+
+        if (result.getOutcome() == TurnResult.DIED) {
+            death();
+        } else if (result.getOutcome() == TurnResult.REACHED_GOAL) {
+            render.renderGoal();
+            Map.getInstance().updateProfile();
+            Map.getInstance().saveScore();
         }
-        return false;
     }
 
     /**
-     * The setup for the teleportation of the player.
+     * The setup for the animation of the teleportation of the player.
      *
-     * @param x          coordinate on which the player moves.
-     * @param y          coordinate on which the player moves.
-     * @param teleporter teleporter the player stepped on.
+     * @param result the turn in which the player was teleported.
      */
-    private void teleportCellLogic(int x, int y, Teleporter teleporter) {
-        teleportPoint = teleporter.getLink().getPosition();
-        int xDir = (int) (teleporter.getPosition().getX() - teleportPoint.getX());
-        int yDir = (int) (teleporter.getPosition().getY() - teleportPoint.getY());
+    private void teleportCellLogic(TurnResult result) {
+        Point2D player = new Point2D(render.getPlayerX() + result.getMoveX(), render.getPlayerY() + result.getMoveY());
+        teleportPoint = new Point2D(result.getLinkX(), result.getLinkY());
+        int xDir = (int) (player.getX() - teleportPoint.getX());
+        int yDir = (int) (player.getY() - teleportPoint.getY());
         teleportDirection = new Point2D(0, 0);
 
         if (xDir > 0) {
@@ -329,14 +286,7 @@ public class GameMaster {
         } else if (yDir < 0) {
             teleportDirection = new Point2D(teleportDirection.getX(), 1);
         }
-
-        Point2D finalDest = teleporter.getTeleportDestination(x, y);
-
-        if (finalDest == null) {
-            isTeleporting = false;
-        } else {
-            finalTeleportDirection = new Point2D(finalDest.getX(), finalDest.getY());
-        }
+        finalTeleportDirection = new Point2D(result.getExitX(), result.getExitY());
     }
 
     /**
@@ -344,21 +294,22 @@ public class GameMaster {
      * Moves the player towards the teleport goal.
      */
     public void teleportPlayer() {
-        Point2D pos = map.getPlayer().getPosition();
+        Point2D pos = new Point2D(render.getPlayerX(), render.getPlayerY());
         render.makePlayerInvisible();
         float TELEPORT_TIME = 0.1f;
         render.setAnimationTime(TELEPORT_TIME);
 
         if (Math.abs(pos.getX()) != Math.abs(teleportPoint.getX())) {
-            render.animatePlayerMove((int) teleportDirection.getX(), 0, false);
+            render.animatePlayerMove((int) teleportDirection.getX(), 0, false, engine.getResult());
         } else if (Math.abs(pos.getY()) != Math.abs(teleportPoint.getY())) {
-            render.animatePlayerMove(0, (int) teleportDirection.getY(), false);
+            render.animatePlayerMove(0, (int) teleportDirection.getY(), false, engine.getResult());
         } else {
             render.makePlayerVisible();
             isTeleporting = false;
-            render.setAnimationTime(ANIMATION_TIME);
+            render.setAnimationTime(stepAnimationTime);
             executeAnimation();
-            render.animatePlayerMove((int) finalTeleportDirection.getX(), (int) finalTeleportDirection.getY(), false);
+            render.animatePlayerMove((int) finalTeleportDirection.getX(), (int) finalTeleportDirection.getY(), false,
+                    engine.getResult());
         }
     }
 
@@ -370,26 +321,13 @@ public class GameMaster {
     }
 
     /**
-     * The animator for the player's sprites.
+     * Get the renderer of the game.
+     *
+     * @return The renderer.
      */
-    Task<Void> animatePlayerSprite = new Task<Void>() {
-        @Override
-        public Void call() {
-            while (mainThread.isAlive()) {
-                try {
-                    if (!player.hasPlayedOnce()) {
-                        player.update();
-                        render.setPlayerSprite(player.getImage());
-                    }
-                    long checkSpriteInterval = 100;
-                    Thread.sleep(checkSpriteInterval);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }
-            return null;
-        }
-    };
+    public MapRenderer getRenderer() {
+        return render;
+    }
 
     /**
      * Get the scene of the game.
@@ -401,6 +339,33 @@ public class GameMaster {
     }
 
 
+    /**
+     * Get the engine playing the turns of the game.
+     *
+     * @return The turn engine.
+     */
+    public TurnEngine getTurnEngine() {
+        return engine;
+    }
+
+    /**
+     * Get the number of moves the player made since the level started.
+     *
+     * @return the current turn.
+     */
+    public int getTurn() {
+        return engine.getTurn();
+    }
+
+    /**
+     * Get the moves waiting to be played.
+     *
+     * @return The input queue.
+     */
+    public InputQueue getInputQueue() {
+        return inputQueue;
+    }
+
     /**
      * Checks if the player is currently being teleported.
      *
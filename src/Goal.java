@@ -1,8 +1,5 @@
 import javafx.scene.image.Image;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-
 public class Goal extends Cell {
     private String filePath = "assets/images/Goal.png";
     private Image artAsset;
@@ -15,11 +12,7 @@ public class Goal extends Cell {
     public Goal() {
         this.isPassable = true;
 
-        try {
-            artAsset = new Image(new FileInputStream(filePath));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        artAsset = AssetRegistry.getInstance().getImage(filePath);
     }
 
     /**
@@ -1,8 +1,5 @@
 import javafx.scene.image.Image;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-
 /**
  * This Class models a ground cell.
  *
@@ -19,11 +16,7 @@ public class Ground extends Cell {
      * Constructor.
      */
     public Ground() {
-        try {
-            artAsset = new Image(new FileInputStream(filePath));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        artAsset = AssetRegistry.getInstance().getImage(filePath);
     }
 
     /**
@@ -185,6 +185,7 @@ public class InGameMenus {
      * Button to load next level.
      */
     private void nextButton() {
+        renderer.stopFrameLoop();
         LevelSelectorController.loadLevel(Map.getInstance().getNextMap());
     }
 
@@ -199,6 +200,7 @@ public class InGameMenus {
      * Button to exit to main menu.
      */
     private void exitButton() {
+        renderer.stopFrameLoop();
         try {
             Parent mainMenuRoot = FXMLLoader.load(getClass().getResource("FXML_Files/MainMenuUpdate.fxml"));
             Scene mainMenu = new Scene(mainMenuRoot, Main.WINDOW_WIDTH, Main.WINDOW_HEIGHT);
@@ -213,6 +215,7 @@ public class InGameMenus {
      * Button to restart the level.
      */
     private void restartButton() {
+        renderer.stopFrameLoop();
         LevelSelectorController.loadLevel(Map.getInstance().getMapName());
     }
 
@@ -0,0 +1,183 @@
+import java.util.Arrays;
+
+/**
+ * This class models a binary min heap of the integers 0 to capacity - 1, each with an integer key.
+ * <p>
+ * The heap remembers where every item is stored, so checking if an item is in the heap takes constant time
+ * and lowering the key of an item does not need to search for it. Nothing is allocated once the heap was sized.
+ */
+public class IndexedMinHeap {
+    private int[] heap; //The items, ordered as a binary heap.
+    private int[] keys; //The key of every item.
+    private int[] positions; //Where every item is in the heap, -1 if it is not in it.
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param capacity number of items the heap can hold.
+     */
+    public IndexedMinHeap(int capacity) {
+        heap = new int[0];
+        keys = new int[0];
+        positions = new int[0];
+        ensureCapacity(capacity);
+    }
+
+    /**
+     * Makes the heap able to hold the integers 0 to capacity - 1. The heap is emptied if it has to grow.
+     *
+     * @param capacity number of items the heap can hold.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > positions.length) {
+            heap = new int[capacity];
+            keys = new int[capacity];
+            positions = new int[capacity];
+            Arrays.fill(positions, -1);
+            size = 0;
+        }
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return True if there is no item in the heap, else False.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Retrieves the number of items in the heap.
+     *
+     * @return number of items.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if an item is in the heap.
+     *
+     * @param item the item.
+     * @return True if the item is in the heap, else False.
+     */
+    public boolean contains(int item) {
+        return positions[item] != -1;
+    }
+
+    /**
+     * Retrieves the key of an item in the heap.
+     *
+     * @param item the item.
+     * @return key of the item.
+     */
+    public int getKey(int item) {
+        return keys[item];
+    }
+
+    /**
+     * Adds an item to the heap.
+     *
+     * @param item the item, it must not be in the heap already.
+     * @param key  key of the item.
+     */
+    public void insert(int item, int key) {
+        keys[item] = key;
+        heap[size] = item;
+        positions[item] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * Lowers the key of an item in the heap.
+     *
+     * @param item the item.
+     * @param key  new key of the item, not higher than its current key.
+     */
+    public void decreaseKey(int item, int key) {
+        keys[item] = key;
+        siftUp(positions[item]);
+    }
+
+    /**
+     * Retrieves the lowest key in the heap.
+     *
+     * @return the lowest key.
+     */
+    public int peekKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Removes the item with the lowest key from the heap.
+     *
+     * @return the item.
+     */
+    public int poll() {
+        int top = heap[0];
+        positions[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Removes every item from the heap. Only the items still in the heap are touched.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves an item up the heap until its parent has a lower key.
+     *
+     * @param index where the item is in the heap.
+     */
+    private void siftUp(int index) {
+        int item = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (keys[heap[parent]] <= keys[item]) {
+                break;
+            }
+            heap[index] = heap[parent];
+            positions[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = item;
+        positions[item] = index;
+    }
+
+    /**
+     * Moves an item down the heap until its children have higher keys.
+     *
+     * @param index where the item is in the heap.
+     */
+    private void siftDown(int index) {
+        int item = heap[index];
+        while (2 * index + 1 < size) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            if (keys[heap[child]] >= keys[item]) {
+                break;
+            }
+            heap[index] = heap[child];
+            positions[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = item;
+        positions[item] = index;
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * This class holds the moves the player asked for while a turn was still being animated, so they are played one
+ * after the other instead of being lost.
+ * <p>
+ * The queue is bounded, a move asked for while it is full is dropped. Every move keeps the time it was asked
+ * for, so the delay until its turn is played can be measured.
+ */
+public class InputQueue {
+    public static final int DEFAULT_CAPACITY = 4;
+    private int[] moveX;
+    private int[] moveY;
+    private long[] inputTime; //When every move was asked for, in nanoseconds.
+    private int head; //Position of the oldest move in the arrays.
+    private int size;
+    private int dropped;
+
+    /**
+     * Creates an empty queue holding up to DEFAULT_CAPACITY moves.
+     */
+    public InputQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param capacity number of moves the queue can hold.
+     */
+    public InputQueue(int capacity) {
+        moveX = new int[capacity];
+        moveY = new int[capacity];
+        inputTime = new long[capacity];
+        head = 0;
+        size = 0;
+        dropped = 0;
+    }
+
+    /**
+     * Adds a move at the end of the queue, unless the queue is full.
+     *
+     * @param x         horizontal direction of the move.
+     * @param y         vertical direction of the move.
+     * @param inputTime when the move was asked for, in nanoseconds.
+     * @return True if the move was added, False if it was dropped.
+     */
+    public boolean offer(int x, int y, long inputTime) {
+        if (size == moveX.length) {
+            dropped++;
+            return false;
+        }
+        int tail = (head + size) % moveX.length;
+        moveX[tail] = x;
+        moveY[tail] = y;
+        this.inputTime[tail] = inputTime;
+        size++;
+        return true;
+    }
+
+    /**
+     * Takes the oldest move out of the queue, it must not be empty.
+     */
+    public void poll() {
+        head = (head + 1) % moveX.length;
+        size--;
+    }
+
+    /**
+     * Get the horizontal direction of the oldest move.
+     *
+     * @return -1, 0 or 1.
+     */
+    public int getX() {
+        return moveX[head];
+    }
+
+    /**
+     * Get the vertical direction of the oldest move.
+     *
+     * @return -1, 0 or 1.
+     */
+    public int getY() {
+        return moveY[head];
+    }
+
+    /**
+     * Get when the oldest move was asked for.
+     *
+     * @return the time in nanoseconds.
+     */
+    public long getInputTime() {
+        return inputTime[head];
+    }
+
+    /**
+     * Checks if there is no move in the queue.
+     *
+     * @return True if the queue is empty, else False.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the number of moves in the queue.
+     *
+     * @return the number of moves.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of moves dropped because the queue was full.
+     *
+     * @return the number of dropped moves.
+     */
+    public int getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Removes every move from the queue, e.g. when the game is over.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
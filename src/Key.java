@@ -1,9 +1,6 @@
 import javafx.geometry.Point2D;
 import javafx.scene.image.Image;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-
 /**
  * This Class models up a coloured Key.
  *
@@ -29,11 +26,7 @@ public class Key extends Item {
         this.pickedUp = false;
         this.colour = colour;
 
-        try {
-            artAsset = new Image(new FileInputStream(filePath + colour + extension));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        artAsset = AssetRegistry.getInstance().getImage(filePath + colour + extension);
     }
 
     /**
@@ -1,9 +1,6 @@
 import javafx.scene.image.Image;
 import javafx.geometry.Point2D;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-
 /**
  * This Class models a door that can be opened with a key.
  *
@@ -26,11 +23,7 @@ public class KeyDoor extends Door {
         this.isPassable = false;
         this.colour = "default";
 
-        try {
-            artAsset = new Image(new FileInputStream(filePath + colour + extension));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        artAsset = AssetRegistry.getInstance().getImage(filePath + colour + extension);
     }
 
     /**
@@ -56,11 +49,7 @@ public class KeyDoor extends Door {
      * Updates the art asset to reflect the colour of the door if it is changed via setColour().
      */
     private void updateArtAsset() {
-        try {
-            artAsset = new Image(new FileInputStream(filePath + colour + extension));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        artAsset = AssetRegistry.getInstance().getImage(filePath + colour + extension);
     }
 
     /**
@@ -77,17 +66,9 @@ public class KeyDoor extends Door {
      */
     @Override
     public boolean open() {
-        Item toBeRemoved = null;
-        for (Item item : Map.getInstance().getPlayer().getInventory()) {
-            if (item.getClass() == Key.class) {
-                Key key = (Key) item;
-                if (key.getColour().equals(this.colour)) {
-                    toBeRemoved = item;
-                    isPassable = true;
-                }
-            }
+        if (Map.getInstance().getPlayer().removeKey(this.colour)) {
+            isPassable = true;
         }
-        Map.getInstance().getPlayer().getInventory().remove(toBeRemoved);
         return isPassable;
     }
 
@@ -131,6 +112,6 @@ public class KeyDoor extends Door {
      */
     @Override
     public String toString() {
-        return "KDoor " + (int) position.getY() + " " + position.getX() + " " + colour;
+        return "KDoor " + (int) position.getY() + " " + (int) position.getX() + " " + colour;
     }
 }
@@ -1,7 +1,11 @@
+import javafx.geometry.Point2D;
+
 import java.io.File;
 import java.nio.file.InvalidPathException;
 import java.time.LocalTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * This Class models a Map.
@@ -10,10 +14,27 @@ import java.util.ArrayList;
  * @author Jordan Betts
  */
 public class Map {
+    private static final int INDEX_BUCKET_SIZE = 8;
+    //The most A* engines kept for reuse, enough for the caller and every thread of the ForkJoin pool.
+    private static final int MAX_IDLE_ENGINES = ForkJoinPool.getCommonPoolParallelism() + 1;
     private static Map instance;
     private Cell[][] cellArray;
     private ArrayList<Item> itemArray;
     private ArrayList<Enemy> enemyArray;
+    private SpatialIndex<Item> itemIndex;
+    private Item[][] itemLayer; //The item lying on every cell, null if there is none.
+    private ArrayList<Item> cellItems; //Reused to find the other items of a cell.
+    private SpatialIndex<Enemy> enemyIndex;
+    private EnemyOccupancy enemyOccupancy; //Which enemies stand on each cell, by position in the enemy list.
+    private FlowField flowField; //Shared by the enemies that target the player.
+    //The A* engines not used by a search, reused by the next ones.
+    private ArrayDeque<PathfindingEngine> idleEngines;
+    private ClusterGraph clusterGraph; //Used by the smart enemies for long paths.
+    private PathCache pathCache; //Shared by the smart enemies that run their own search.
+    private int searchMode = SmartTargetingEnemy.FLOW_FIELD; //How the smart enemies find the player.
+    private int cellVersion; //Changes every time a cell is replaced.
+    private WalkabilityMap walkability;
+    private ArrayList<CellChangeListener> cellChangeListeners;
     private Player player;
     private String mapNumber; //the id of the map
     private LocalTime levelTime;
@@ -38,6 +59,13 @@ public class Map {
         cellArray = new Cell[0][0];
         itemArray = new ArrayList<>();
         enemyArray = new ArrayList<>();
+        itemIndex = new SpatialIndex<>(INDEX_BUCKET_SIZE);
+        itemLayer = new Item[0][0];
+        cellItems = new ArrayList<>();
+        enemyIndex = new SpatialIndex<>(INDEX_BUCKET_SIZE);
+        enemyOccupancy = new EnemyOccupancy(0, 0);
+        idleEngines = new ArrayDeque<>();
+        cellChangeListeners = new ArrayList<>();
         player = new Player();
         mapStartTime = LocalTime.now();
     }
@@ -46,6 +74,9 @@ public class Map {
      * Destroys the singleton instance of Map.
      */
     public static void destroyInstance() {
+        if (instance != null) {
+            instance.releasePathfindingEngines();
+        }
         instance = null;
     }
 
@@ -56,6 +87,18 @@ public class Map {
      */
     public void setCellArray(Cell[][] cellArray) {
         this.cellArray = cellArray;
+        cellVersion++;
+        walkability = null;
+        int height = cellArray.length;
+        int width = height == 0 ? 0 : cellArray[0].length;
+        itemLayer = new Item[height][width];
+        for (Item item : itemArray) {
+            placeOnLayer(item);
+        }
+        enemyOccupancy = new EnemyOccupancy(width, height);
+        for (Enemy enemy : enemyArray) {
+            enemyOccupancy.add((int) enemy.getPosition().getX(), (int) enemy.getPosition().getY());
+        }
     }
 
     /**
@@ -67,6 +110,152 @@ public class Map {
         return this.cellArray;
     }
 
+    /**
+     * Replaces a cell of the map, e.g. a door that was opened, and notifies the cell change listeners.
+     *
+     * @param x    coordinate of the cell.
+     * @param y    coordinate of the cell.
+     * @param cell the new cell.
+     */
+    public void setCell(int x, int y, Cell cell) {
+        cellArray[y][x] = cell;
+        cellVersion++;
+        if (walkability != null) {
+            walkability.update(x, y, cell);
+        }
+        for (CellChangeListener listener : cellChangeListeners) {
+            listener.cellChanged(x, y);
+        }
+    }
+
+    /**
+     * Registers a listener notified every time a cell is replaced with setCell.
+     *
+     * @param listener listener to be added.
+     */
+    public void addCellChangeListener(CellChangeListener listener) {
+        cellChangeListeners.add(listener);
+    }
+
+    /**
+     * Removes a cell change listener.
+     *
+     * @param listener listener to be removed.
+     */
+    public void removeCellChangeListener(CellChangeListener listener) {
+        cellChangeListeners.remove(listener);
+    }
+
+    /**
+     * Retrieves the walkability of the cells, working it out the first time it is asked for after the map was
+     * loaded.
+     *
+     * @return walkability of the map.
+     */
+    public synchronized WalkabilityMap getWalkability() {
+        if (walkability == null) {
+            walkability = new WalkabilityMap(cellArray);
+        }
+        return walkability;
+    }
+
+    /**
+     * Retrieves a number that changes every time a cell is replaced with setCell or the cells are set again.
+     *
+     * @return version of the cells.
+     */
+    public int getCellVersion() {
+        return cellVersion;
+    }
+
+    /**
+     * Retrieves the flow field leading the enemies to the player, creating it the first time.
+     *
+     * @return flow field of the map.
+     */
+    public synchronized FlowField getFlowField() {
+        if (flowField == null) {
+            flowField = new FlowField(this);
+        }
+        return flowField;
+    }
+
+    /**
+     * Takes an A* engine for a search, one nobody is using or a new one if they are all busy. The engine has to
+     * be given back with releasePathfindingEngine once the search is over.
+     *
+     * @return pathfinding engine of the map.
+     */
+    public synchronized PathfindingEngine borrowPathfindingEngine() {
+        PathfindingEngine engine = idleEngines.pollFirst();
+        return engine == null ? new PathfindingEngine() : engine;
+    }
+
+    /**
+     * Gives back an A* engine taken with borrowPathfindingEngine. Past MAX_IDLE_ENGINES the engine is not kept.
+     *
+     * @param engine the engine.
+     */
+    public synchronized void releasePathfindingEngine(PathfindingEngine engine) {
+        if (idleEngines.size() < MAX_IDLE_ENGINES) {
+            idleEngines.addFirst(engine);
+        }
+    }
+
+    /**
+     * Drops the A* engines kept for reuse along with their arrays, e.g. when another level is loaded.
+     */
+    public synchronized void releasePathfindingEngines() {
+        idleEngines.clear();
+    }
+
+    /**
+     * Retrieves the cluster graph of the map, creating it the first time.
+     *
+     * @return cluster graph of the map.
+     */
+    public synchronized ClusterGraph getClusterGraph() {
+        if (clusterGraph == null) {
+            clusterGraph = new ClusterGraph(this);
+        }
+        return clusterGraph;
+    }
+
+    /**
+     * Retrieves the cache of the paths searched by the smart enemies, creating it the first time.
+     *
+     * @return path cache of the map.
+     */
+    public synchronized PathCache getPathCache() {
+        if (pathCache == null) {
+            pathCache = new PathCache();
+        }
+        return pathCache;
+    }
+
+    /**
+     * Retrieves the way the smart enemies of the map search their path to the player, unless an enemy was
+     * given its own.
+     *
+     * @return SmartTargetingEnemy.FLOW_FIELD, A_STAR, JUMP_POINT or HIERARCHICAL.
+     */
+    public int getSearchMode() {
+        return searchMode;
+    }
+
+    /**
+     * Sets the way the smart enemies of the map search their path to the player. The cluster graph is built
+     * here for the hierarchical mode, while the level is set up, instead of during the first turn.
+     *
+     * @param searchMode SmartTargetingEnemy.FLOW_FIELD, A_STAR, JUMP_POINT or HIERARCHICAL.
+     */
+    public void setSearchMode(int searchMode) {
+        this.searchMode = searchMode;
+        if (searchMode == SmartTargetingEnemy.HIERARCHICAL) {
+            getClusterGraph().build();
+        }
+    }
+
     /**
      * Retrieves the player character.
      *
@@ -94,6 +283,172 @@ public class Map {
         return enemyArray;
     }
 
+    /**
+     * Places an item on the map.
+     *
+     * @param item item to be placed.
+     */
+    public void addItem(Item item) {
+        itemArray.add(item);
+        itemIndex.insert(item, (int) item.getPosition().getX(), (int) item.getPosition().getY());
+        placeOnLayer(item);
+    }
+
+    /**
+     * Removes an item from the map, e.g. when it is picked up.
+     *
+     * @param item item to be removed.
+     */
+    public void removeItem(Item item) {
+        int x = (int) item.getPosition().getX();
+        int y = (int) item.getPosition().getY();
+        itemArray.remove(item);
+        itemIndex.remove(item, x, y);
+        if (isOnMap(x, y) && itemLayer[y][x] == item) {
+            itemLayer[y][x] = null;
+            //Another item may lie on the same cell.
+            for (Item other : itemIndex.query(x, y, x, y, cellItems)) {
+                if ((int) other.getPosition().getX() == x && (int) other.getPosition().getY() == y) {
+                    itemLayer[y][x] = other;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves the item lying on a cell.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     * @return the item, null if there is none.
+     */
+    public Item getItemAt(int x, int y) {
+        return isOnMap(x, y) ? itemLayer[y][x] : null;
+    }
+
+    /**
+     * Puts an item on the item layer, unless an item placed before lies on the same cell.
+     *
+     * @param item item to be placed.
+     */
+    private void placeOnLayer(Item item) {
+        int x = (int) item.getPosition().getX();
+        int y = (int) item.getPosition().getY();
+        if (isOnMap(x, y) && itemLayer[y][x] == null) {
+            itemLayer[y][x] = item;
+        }
+    }
+
+    /**
+     * Checks if a position is inside the map.
+     *
+     * @param x coordinate of the position.
+     * @param y coordinate of the position.
+     * @return True if the position is on a cell of the map, else False.
+     */
+    private boolean isOnMap(int x, int y) {
+        return y >= 0 && y < itemLayer.length && x >= 0 && x < itemLayer[y].length;
+    }
+
+    /**
+     * Places an enemy on the map.
+     *
+     * @param enemy enemy to be placed.
+     */
+    public void addEnemy(Enemy enemy) {
+        enemyArray.add(enemy);
+        enemyIndex.insert(enemy, (int) enemy.getPosition().getX(), (int) enemy.getPosition().getY());
+        enemyOccupancy.add((int) enemy.getPosition().getX(), (int) enemy.getPosition().getY());
+    }
+
+    /**
+     * Moves an enemy by the given direction, keeping the spatial index and the occupancy of the cells up to date.
+     *
+     * @param enemy     enemy to be moved.
+     * @param direction direction of the move.
+     */
+    public void moveEnemy(Enemy enemy, Point2D direction) {
+        moveEnemy(enemyArray.indexOf(enemy), direction);
+    }
+
+    /**
+     * Moves the enemy at a position of the enemy list by the given direction, keeping the spatial index and the
+     * occupancy of the cells up to date.
+     *
+     * @param index     position of the enemy in the enemy list.
+     * @param direction direction of the move.
+     */
+    public void moveEnemy(int index, Point2D direction) {
+        Enemy enemy = enemyArray.get(index);
+        Point2D oldPosition = enemy.getPosition();
+        enemy.updatePosition(direction);
+        Point2D newPosition = enemy.getPosition();
+        enemyIndex.move(enemy, (int) oldPosition.getX(), (int) oldPosition.getY(),
+                (int) newPosition.getX(), (int) newPosition.getY());
+        enemyOccupancy.move(index, (int) newPosition.getX(), (int) newPosition.getY());
+    }
+
+    /**
+     * Retrieves an enemy standing on a cell.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     * @return the enemy, null if there is none.
+     */
+    public Enemy getEnemyAt(int x, int y) {
+        int index = enemyOccupancy.getFirst(x, y);
+        return index == EnemyOccupancy.NONE ? null : enemyArray.get(index);
+    }
+
+    /**
+     * Checks if an enemy stands on a cell.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     * @return True if there is an enemy on the cell, else False.
+     */
+    public boolean isEnemyAt(int x, int y) {
+        return enemyOccupancy.isOccupied(x, y);
+    }
+
+    /**
+     * Retrieves which enemies stand on each cell, to go through all the enemies of a cell.
+     *
+     * @return the occupancy of the cells, enemies being known by their position in the enemy list.
+     */
+    public EnemyOccupancy getEnemyOccupancy() {
+        return enemyOccupancy;
+    }
+
+    /**
+     * Collects the items placed in or near an area of the map.
+     *
+     * @param minX   smallest x coordinate of the area.
+     * @param minY   smallest y coordinate of the area.
+     * @param maxX   largest x coordinate of the area.
+     * @param maxY   largest y coordinate of the area.
+     * @param result list the items are put in, it is cleared first.
+     * @return the result list.
+     */
+    public ArrayList<Item> getItemsInArea(int minX, int minY, int maxX, int maxY, ArrayList<Item> result) {
+        return itemIndex.query(minX, minY, maxX, maxY, result);
+    }
+
+    /**
+     * Collects the enemies placed in or near an area of the map.
+     *
+     * @param minX   smallest x coordinate of the area.
+     * @param minY   smallest y coordinate of the area.
+     * @param maxX   largest x coordinate of the area.
+     * @param maxY   largest y coordinate of the area.
+     * @param result list the enemies are put in, it is cleared first.
+     * @return the result list.
+     */
+    public ArrayList<Enemy> getEnemiesInArea(int minX, int minY, int maxX, int maxY, ArrayList<Enemy> result) {
+        return enemyIndex.query(minX, minY, maxX, maxY, result);
+    }
+
     /**
      * Retrieves the name of the map.
      *
@@ -158,18 +513,24 @@ public class Map {
     }
 
     /**
-     * Updates profiles highest level cleared.
+     * Updates profiles highest level cleared. Nothing is saved if no profile is loaded.
      */
     public void updateProfile() {
         Profile profile = MainMenu.getInstance().getLoadedProfile();
+        if (profile == null) {
+            return;
+        }
         profile.setHighestClearedLvl(Integer.parseInt(this.mapNumber));
         FileWriter.writeProfile(profile);
     }
 
     /**
-     * Saves the players score.
+     * Saves the players score. Nothing is saved if no profile is loaded.
      */
     public void saveScore() {
+        if (MainMenu.getInstance().getLoadedProfile() == null) {
+            return;
+        }
         String mapNumber = this.mapNumber + "\n";
         String playerName = MainMenu.getInstance().getLoadedProfile().getName() + "\n";
         String time = getTimeDifference() + "\n";
@@ -0,0 +1,216 @@
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+import java.util.LinkedHashMap;
+
+/**
+ * This class rasterizes the cells of the map into square chunks, so the view can be drawn with a handful of
+ * images instead of one image per cell.
+ * <p>
+ * Chunks are created the first time they are needed and kept until the memory cap is reached, at which point
+ * the least recently drawn chunk is dropped. A changed cell is painted again inside its chunk.
+ */
+public class MapChunkCache {
+    private static final int BYTES_PER_PIXEL = 4;
+    private final int chunkCells;
+    private final int cellSide;
+    private final long memoryCap;
+    private final long chunkBytes;
+    private LinkedHashMap<Long, WritableImage> chunks;
+    private int[] blankCell;
+    private int chunksRasterized;
+    private int cellsPainted;
+
+    /**
+     * Creates an empty chunk cache.
+     *
+     * @param chunkCells number of cells on the side of a chunk.
+     * @param cellSide   size of a cell in pixels.
+     * @param memoryCap  maximum number of bytes the chunks can take.
+     */
+    public MapChunkCache(int chunkCells, int cellSide, long memoryCap) {
+        this.chunkCells = chunkCells;
+        this.cellSide = cellSide;
+        this.memoryCap = memoryCap;
+        this.chunkBytes = (long) chunkCells * cellSide * chunkCells * cellSide * BYTES_PER_PIXEL;
+        blankCell = new int[cellSide * cellSide];
+
+        //An access ordered map keeps the least recently used chunk first.
+        chunks = new LinkedHashMap<Long, WritableImage>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(java.util.Map.Entry<Long, WritableImage> eldest) {
+                return size() > 1 && size() * chunkBytes > MapChunkCache.this.memoryCap;
+            }
+        };
+    }
+
+    /**
+     * Draws the chunks that cover a rectangle of cells.
+     *
+     * @param gc          graphics context to draw on.
+     * @param map         the cells of the map.
+     * @param outOfBounds the image used for the cells outside the map.
+     * @param originX     x coordinate of the cell drawn at the top left of the context.
+     * @param originY     y coordinate of the cell drawn at the top left of the context.
+     * @param cellsX      number of cells drawn horizontally.
+     * @param cellsY      number of cells drawn vertically.
+     */
+    public void draw(GraphicsContext gc, Cell[][] map, Image outOfBounds, int originX, int originY, int cellsX, int cellsY) {
+        int firstChunkX = Math.floorDiv(originX, chunkCells);
+        int firstChunkY = Math.floorDiv(originY, chunkCells);
+        int lastChunkX = Math.floorDiv(originX + cellsX - 1, chunkCells);
+        int lastChunkY = Math.floorDiv(originY + cellsY - 1, chunkCells);
+
+        for (int chunkY = firstChunkY; chunkY <= lastChunkY; chunkY++) {
+            for (int chunkX = firstChunkX; chunkX <= lastChunkX; chunkX++) {
+                WritableImage chunk = getChunk(map, outOfBounds, chunkX, chunkY);
+                double xCoord = (chunkX * chunkCells - originX) * cellSide;
+                double yCoord = (chunkY * chunkCells - originY) * cellSide;
+                gc.drawImage(chunk, xCoord, yCoord);
+            }
+        }
+    }
+
+    /**
+     * Paints a changed cell again, if the chunk holding it is cached.
+     *
+     * @param map         the cells of the map.
+     * @param outOfBounds the image used for the cells outside the map.
+     * @param x           x coordinate of the cell on the map.
+     * @param y           y coordinate of the cell on the map.
+     */
+    public void invalidate(Cell[][] map, Image outOfBounds, int x, int y) {
+        int chunkX = Math.floorDiv(x, chunkCells);
+        int chunkY = Math.floorDiv(y, chunkCells);
+        WritableImage chunk = chunks.get(toKey(chunkX, chunkY));
+
+        if (chunk != null) {
+            paintCell(chunk.getPixelWriter(), map, outOfBounds, x, y, chunkX, chunkY);
+        }
+    }
+
+    /**
+     * Drops every cached chunk.
+     */
+    public void clear() {
+        chunks.clear();
+    }
+
+    /**
+     * Get the number of cells on the side of a chunk.
+     *
+     * @return the number of cells.
+     */
+    public int getChunkCells() {
+        return chunkCells;
+    }
+
+    /**
+     * Get the number of chunks currently cached.
+     *
+     * @return the number of chunks.
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Get the memory taken by the cached chunks, assuming 32 bits per pixel.
+     *
+     * @return memory used in bytes.
+     */
+    public long getMemoryUsage() {
+        return chunks.size() * chunkBytes;
+    }
+
+    /**
+     * Get the number of chunks rasterized since the cache was created, including the evicted ones.
+     *
+     * @return the number of rasterized chunks.
+     */
+    public int getChunksRasterized() {
+        return chunksRasterized;
+    }
+
+    /**
+     * Get the number of cells painted into chunks since the cache was created.
+     *
+     * @return the number of painted cells.
+     */
+    public int getCellsPainted() {
+        return cellsPainted;
+    }
+
+    /**
+     * Retrieves a chunk, rasterizing it if it is not cached. The chunk holding the cell (x, y) is
+     * (floorDiv(x, chunkCells), floorDiv(y, chunkCells)) and the cell starts at pixel
+     * (floorMod(x, chunkCells) * cellSide, floorMod(y, chunkCells) * cellSide) of it.
+     *
+     * @param map         the cells of the map.
+     * @param outOfBounds the image used for the cells outside the map.
+     * @param chunkX      x coordinate of the chunk.
+     * @param chunkY      y coordinate of the chunk.
+     * @return the chunk.
+     */
+    public WritableImage getChunk(Cell[][] map, Image outOfBounds, int chunkX, int chunkY) {
+        Long key = toKey(chunkX, chunkY);
+        WritableImage chunk = chunks.get(key);
+
+        if (chunk == null) {
+            chunk = new WritableImage(chunkCells * cellSide, chunkCells * cellSide);
+            PixelWriter writer = chunk.getPixelWriter();
+            for (int y = chunkY * chunkCells; y < (chunkY + 1) * chunkCells; y++) {
+                for (int x = chunkX * chunkCells; x < (chunkX + 1) * chunkCells; x++) {
+                    paintCell(writer, map, outOfBounds, x, y, chunkX, chunkY);
+                }
+            }
+            chunks.put(key, chunk);
+            chunksRasterized++;
+        }
+        return chunk;
+    }
+
+    /**
+     * Paints a single cell into a chunk.
+     *
+     * @param writer      pixel writer of the chunk.
+     * @param map         the cells of the map.
+     * @param outOfBounds the image used for the cells outside the map.
+     * @param x           x coordinate of the cell on the map.
+     * @param y           y coordinate of the cell on the map.
+     * @param chunkX      x coordinate of the chunk.
+     * @param chunkY      y coordinate of the chunk.
+     */
+    private void paintCell(PixelWriter writer, Cell[][] map, Image outOfBounds, int x, int y, int chunkX, int chunkY) {
+        Image cell = outOfBounds;
+        if (y >= 0 && y < map.length && x >= 0 && x < map[y].length) {
+            cell = map[y][x].getImage();
+        }
+
+        int destX = (x - chunkX * chunkCells) * cellSide;
+        int destY = (y - chunkY * chunkCells) * cellSide;
+
+        if (cell == null || cell.getPixelReader() == null) {
+            writer.setPixels(destX, destY, cellSide, cellSide, PixelFormat.getIntArgbInstance(), blankCell, 0, cellSide);
+        } else {
+            int width = Math.min(cellSide, (int) cell.getWidth());
+            int height = Math.min(cellSide, (int) cell.getHeight());
+            writer.setPixels(destX, destY, width, height, cell.getPixelReader(), 0, 0);
+        }
+        cellsPainted++;
+    }
+
+    /**
+     * Packs the coordinates of a chunk into a single key.
+     *
+     * @param chunkX x coordinate of the chunk.
+     * @param chunkY y coordinate of the chunk.
+     * @return the key of the chunk.
+     */
+    private static Long toKey(int chunkX, int chunkY) {
+        return ((long) chunkY << 32) | (chunkX & 0xFFFFFFFFL);
+    }
+}
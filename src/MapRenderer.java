@@ -1,45 +1,29 @@
-import java.io.File;
-import java.io.FileInputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 
-import javafx.animation.FadeTransition;
-import javafx.animation.Interpolator;
-import javafx.animation.TranslateTransition;
-import javafx.application.Platform;
-import javafx.event.ActionEvent;
 import javafx.geometry.Point2D;
-import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.Pane;
-import javafx.scene.media.AudioClip;
-import javafx.scene.paint.Color;
-import javafx.util.Duration;
 
 /**
- * This is the renderer for the game. All the graphics and animations are handled by this class.
+ * This is the renderer for the game. It decides what is on screen and drives the animations of a turn,
+ * the drawing itself is done by a render sink, so the game can also run without a window.
  * This file has been heavily modified by Radu Bucurescu, the original creator of the file being Liam O'Reilly.
  *
  * @author Radu Bucurescu
  */
 public class MapRenderer {
-    private final String SFX_DEATH = "sound/Death.mp3";
-    private final String SFX_GOAL = "sound/Goal.mp3";
     // The size of each cell
     public static final int GRID_CELL_SIDE = 100;
     // Variables for the rendered cells the player will see.
     private int RENDERED_CELLS_X;
     private int RENDERED_CELLS_Y;
-    private int CANVAS_WIDTH;
-    private int CANVAS_HEIGHT;
-    //Values used for the rendering of the game.
-    private Canvas gameMap; //The canvas on which we draw the map.
-    private Pane enemiesParent; //We are gonna place the enemies here
-    private Pane gameGraphics; //This will hold both the game map and the enemies
-    private Canvas blackPause;
-    private InGameMenus menus;
+    private RenderSink sink; //Puts the game on screen, or records it when there is no screen.
+    //Reused lists holding the items and enemies found around the view by the map's spatial index.
+    private ArrayList<Item> visibleItems = new ArrayList<>();
+    private ArrayList<Enemy> visibleEnemies = new ArrayList<>();
+    //Reused array holding the positions in the enemy list of the enemies of the animated turn around the view.
+    private int[] movedEnemies = new int[64];
+    private int movedEnemyCount;
     //The variables used to check the input from the player
     //to control the animation.
     private boolean canMove = true;
@@ -48,85 +32,52 @@ public class MapRenderer {
     private boolean hasDied = false;
     //Values used for the animation of the game
     private float animationTime;
-    private TranslateTransition translateTransition;
-    // Loaded images
-    //Don't worry, those are all test values too, I'll put them in tilemaps after everything is working fine.
-    private ImageView player;
-    private Image wall;
+    private PerformanceOverlay performanceOverlay;
+    private TurnResult animatedTurn; //The turn being animated, null between turns.
+    private boolean hasPendingEnemyMoves; //The enemies of the animated turn moved on the map, not yet on screen.
     private Map mapClass;
     private Cell[][] map;
     private int playerX;
     private int playerY;
-    private Player playerClass;
     private GameMaster game;
-    private Pane root;
 
     /**
      * The constructor for the map renderer.
      *
-     * @param root          pane on which the game is rendered.
+     * @param sink          on which the game is rendered.
      * @param WINDOW_WIDTH  of the window.
      * @param WINDOW_HEIGHT of the window.
      * @param map           object to be rendered.
      * @param game          object to be rendered.
      */
-    public MapRenderer(Pane root, final int WINDOW_WIDTH, final int WINDOW_HEIGHT, Map map, GameMaster game) {
-        // The dimensions of the canvas
-        CANVAS_WIDTH = (WINDOW_WIDTH + 2 * GRID_CELL_SIDE);
-        CANVAS_HEIGHT = (WINDOW_HEIGHT + 2 * GRID_CELL_SIDE);
-        RENDERED_CELLS_X = CANVAS_WIDTH / GRID_CELL_SIDE;
-        RENDERED_CELLS_Y = CANVAS_HEIGHT / GRID_CELL_SIDE;
-
-        enemiesParent = new Pane();
-        gameMap = new Canvas(CANVAS_WIDTH, CANVAS_HEIGHT);
-        gameGraphics = new Pane(gameMap, enemiesParent);
-        gameMap.setTranslateX(-GRID_CELL_SIDE);
-        gameMap.setTranslateY(-GRID_CELL_SIDE);
+    public MapRenderer(RenderSink sink, final int WINDOW_WIDTH, final int WINDOW_HEIGHT, Map map, GameMaster game) {
+        // The number of cells on the canvas, one more on each side for the scrolling.
+        RENDERED_CELLS_X = (WINDOW_WIDTH + 2 * GRID_CELL_SIDE) / GRID_CELL_SIDE;
+        RENDERED_CELLS_Y = (WINDOW_HEIGHT + 2 * GRID_CELL_SIDE) / GRID_CELL_SIDE;
+
+        this.sink = sink;
         this.mapClass = map;
         this.map = mapClass.getCellArray();
         this.game = game;
-        this.root = root;
-
-        blackPause = new Canvas();
-        blackPause.setWidth(CANVAS_WIDTH);
-        blackPause.setHeight(CANVAS_HEIGHT);
-        GraphicsContext gc = blackPause.getGraphicsContext2D();
-
-        gc.setFill(new Color(0, 0, 0, 0.6f));
-
-        menus = new InGameMenus(WINDOW_WIDTH, WINDOW_HEIGHT, this);
-
-        playerClass = mapClass.getPlayer();
-        playerX = (int) playerClass.getPosition().getX();
-        playerY = (int) playerClass.getPosition().getY();
-
-        translateTransition = new TranslateTransition();
-        translateTransition.setDuration(Duration.seconds(animationTime));
-        translateTransition.setNode(gameGraphics);
-        translateTransition.setInterpolator(Interpolator.LINEAR);
-
-        // don't forget to remove this later.
-        // createTestObjects(); //only used for the testing phase.
-        // Load images
-        try {
-            player = new ImageView();
-            wall = new Image(new FileInputStream("assets/images/Wall.png"));
-            player.setTranslateY(-10);
-        } catch (Exception e) {
-            System.out.println("Couldn't find the images");
-        }
-        root.getChildren().addAll(gameGraphics, player, blackPause);
+        performanceOverlay = new PerformanceOverlay();
+
+        playerX = (int) mapClass.getPlayer().getPosition().getX();
+        playerY = (int) mapClass.getPlayer().getPosition().getY();
+
+        sink.attach(this, RENDERED_CELLS_X, RENDERED_CELLS_Y);
         drawGame(0, 0);
     }
 
     /**
-     * Execute the animation for the player movement.
+     * Execute the animation for the player movement. The turn was already played by the turn engine, the map
+     * holds its end, the renderer only catches up with it.
      *
      * @param x       coordinate the player moved with.
      * @param y       coordinate the player moved with.
      * @param hasDied true or false dependent on if player dead.
+     * @param turn    the turn the move is part of.
      */
-    public void animatePlayerMove(int x, int y, boolean hasDied) {
+    public void animatePlayerMove(int x, int y, boolean hasDied, TurnResult turn) {
         if (x != 0 || y != 0) {
             if (x == 1) {
                 if (!playerIsReversed) {
@@ -137,6 +88,10 @@ public class MapRenderer {
             }
         }
         canMove = false;
+        if (animatedTurn == null && turn != null) {
+            animatedTurn = turn;
+            hasPendingEnemyMoves = true;
+        }
         animateAccordingToMovement(-x, -y, hasDied);
         drawGame(x, y);
     }
@@ -151,39 +106,40 @@ public class MapRenderer {
     private void animateAccordingToMovement(int x, int y, boolean willDie) {
         double destX;
         double destY;
+        double duration = animationTime;
 
         //If the player is going to die, cut the animation by half
         if (willDie) {
             destX = (x * GRID_CELL_SIDE) / 2.0;
             destY = (y * GRID_CELL_SIDE) / 2.0;
-            translateTransition.setDuration(Duration.seconds(animationTime / 2.0));
+            duration = animationTime / 2.0;
         } else {
             destX = (x * GRID_CELL_SIDE);
             destY = (y * GRID_CELL_SIDE);
         }
 
-        translateTransition.setToX(destX);
-        translateTransition.setToY(destY);
-        translateTransition.play();
-
-        translateTransition.setOnFinished(e -> {
+        sink.moveCamera(destX, destY, duration, () -> {
             if (willDie) {
                 playerDeath();
             } else {
+                sink.invalidateMinimap(playerX, playerY);
                 playerX -= x;
                 playerY -= y;
-                Point2D pos = new Point2D(playerX, playerY);
-                playerClass.setPosition(pos);
-                gameGraphics.setTranslateX(0);
-                gameGraphics.setTranslateY(0);
+                sink.invalidateMinimap(playerX, playerY);
+                sink.resetCamera();
 
                 if (!game.isTeleporting()) {
+                    animatedTurn = null;
                     canMove = !isPaused;
                     game.checkGround();
                 } else {
                     game.teleportPlayer();
                 }
                 drawGame(0, 0);
+                //The turn is over on screen, the next move the player asked for can be played.
+                if (animatedTurn == null) {
+                    game.playQueuedMoves();
+                }
             }
         });
     }
@@ -219,82 +175,122 @@ public class MapRenderer {
             return;
         }
 
+        long startTime = System.nanoTime();
         drawMap();
+        long mapTime = System.nanoTime();
         drawItems();
-        ///removes the enemies from the scene
-        enemiesParent.getChildren().remove(0, enemiesParent.getChildren().size());
+        long itemsTime = System.nanoTime();
         drawEnemies(x, y);
+        long enemiesTime = System.nanoTime();
+        sink.refreshMinimap();
+
+        performanceOverlay.record(PerformanceOverlay.DRAW_MAP, mapTime - startTime);
+        performanceOverlay.record(PerformanceOverlay.DRAW_ITEMS, itemsTime - mapTime);
+        performanceOverlay.record(PerformanceOverlay.DRAW_ENEMIES, enemiesTime - itemsTime);
+        performanceOverlay.setEnemyNodes(sink.getEnemySpriteCount());
+        performanceOverlay.setPathCacheHitRate(mapClass.getPathCache().getHitRate());
+        performanceOverlay.setInputQueue(game.getInputQueue().size(), game.getInputQueue().getDropped());
     }
 
     /**
-     * Draws the items that are on screen on the canvas and executes their moving animation.
+     * Places the sprites of the enemies that are on screen and executes their moving animation.
+     * Enemies that left the screen have their sprite hidden and returned to the pool.
+     * Outside of a turn only the enemies found around the view by the spatial index are drawn. During a turn the
+     * enemies already stand at the end of their move on the map, so each sprite of the enemies around the view is
+     * placed where its enemy came from, and moved from there along with the player's last step of the turn. The
+     * minimap is told about the moves of all the enemies at once.
      *
      * @param inpx The horizontal direction on which the player moves.
      * @param inpy The vertical direction on which the player moves.
      */
     private void drawEnemies(int inpx, int inpy) {
-        ArrayList<Enemy> enemies = mapClass.getEnemyArray();
-
-        for (Enemy enemy : enemies) {
-            Point2D coord = enemy.getPosition();
-            int y = (int) coord.getY();
-            int x = (int) coord.getX();
-
-            Point2D enemyNextMove = new Point2D(0, 0);
-            if (!game.isTeleporting() && (inpx != 0 || inpy != 0)) {
-                enemyNextMove = enemy.getNextMove();
+        if (!hasPendingEnemyMoves) {
+            sink.beginEnemyPass();
+            mapClass.getEnemiesInArea(playerX - RENDERED_CELLS_X / 2, playerY - RENDERED_CELLS_Y / 2,
+                    playerX + RENDERED_CELLS_X / 2, playerY + RENDERED_CELLS_Y / 2, visibleEnemies);
+            for (Enemy enemy : visibleEnemies) {
+                Point2D coord = enemy.getPosition();
+                placeEnemy(enemy, (int) coord.getX(), (int) coord.getY());
             }
+            sink.endEnemyPass();
+            return;
+        }
 
-            if (isToBeRendered(x, y)) {
-                ImageView enemyImage = new ImageView();
-                enemyImage.setImage(enemy.getArtAsset());
-                enemiesParent.getChildren().add(enemyImage);
-
-                double xCoord = (x - playerX + RENDERED_CELLS_X / 2 - 1) * GRID_CELL_SIDE;
-                double yCoord = (y - playerY + RENDERED_CELLS_Y / 2 - 1) * GRID_CELL_SIDE;
+        long aiStartTime = System.nanoTime();
+        collectMovedEnemies();
+        ArrayList<Enemy> enemies = mapClass.getEnemyArray();
+        sink.beginEnemyPass();
+        for (int i = 0; i < movedEnemyCount; i++) {
+            int index = movedEnemies[i];
+            Point2D coord = enemies.get(index).getPosition();
+            Point2D enemyMove = animatedTurn.getEnemyMove(index);
+            placeEnemy(enemies.get(index), (int) (coord.getX() - enemyMove.getX()),
+                    (int) (coord.getY() - enemyMove.getY()));
+        }
+        sink.endEnemyPass();
+        if (game.isTeleporting() || (inpx == 0 && inpy == 0)) {
+            return;
+        }
 
-                enemyImage.setTranslateX(xCoord);
-                enemyImage.setTranslateY(yCoord);
+        hasPendingEnemyMoves = false;
+        for (int i = 0; i < movedEnemyCount; i++) {
+            int index = movedEnemies[i];
+            Point2D enemyMove = animatedTurn.getEnemyMove(index);
+            sink.moveEnemy(enemies.get(index), enemyMove.getX() * GRID_CELL_SIDE, enemyMove.getY() * GRID_CELL_SIDE,
+                    animationTime);
+        }
+        sink.invalidateEnemyMoves(animatedTurn);
+        performanceOverlay.record(PerformanceOverlay.ENEMY_AI,
+                game.getTurnEngine().getEnemyPlanner().getPlanningTime() + System.nanoTime() - aiStartTime);
+    }
 
-                if (!game.isTeleporting() && (inpx != 0 || inpy != 0)) {
-                    animateEnemies(enemyImage, enemyNextMove);
+    /**
+     * Collects the enemies of the animated turn standing around the view, one cell further than it on every side
+     * so the enemies stepping out of it are found too. The cells are read from the occupancy of the map, which
+     * gives the position of each enemy in the enemy list, and so its move.
+     */
+    private void collectMovedEnemies() {
+        EnemyOccupancy occupancy = mapClass.getEnemyOccupancy();
+        movedEnemyCount = 0;
+        for (int y = playerY - RENDERED_CELLS_Y / 2 - 1; y <= playerY + RENDERED_CELLS_Y / 2 + 1; y++) {
+            for (int x = playerX - RENDERED_CELLS_X / 2 - 1; x <= playerX + RENDERED_CELLS_X / 2 + 1; x++) {
+                for (int enemy = occupancy.getFirst(x, y); enemy != EnemyOccupancy.NONE;
+                     enemy = occupancy.getNext(enemy)) {
+                    if (enemy >= animatedTurn.getEnemyCount()) {
+                        continue;
+                    }
+                    if (movedEnemyCount == movedEnemies.length) {
+                        movedEnemies = Arrays.copyOf(movedEnemies, movedEnemies.length * 2);
+                    }
+                    movedEnemies[movedEnemyCount++] = enemy;
                 }
             }
-            if (!game.isTeleporting() && (inpx != 0 || inpy != 0)) {
-                enemy.updatePosition(enemyNextMove);
-            }
         }
     }
 
     /**
-     * Execute the transition animation for the player
-     * movement.
+     * Places the sprite of an enemy if its cell is on screen.
      *
-     * @param enemy        The render of the enemy we are animating.
-     * @param movingCoords The enemy's move direction.
+     * @param enemy the enemy.
+     * @param x     coordinate of the cell the sprite is drawn on.
+     * @param y     coordinate of the cell the sprite is drawn on.
      */
-    private void animateEnemies(ImageView enemy, Point2D movingCoords) {
-        TranslateTransition t = new TranslateTransition();
-        t.setDuration(Duration.seconds(animationTime));
-
-        double destX = enemy.getTranslateX() + (movingCoords.getX()) * GRID_CELL_SIDE;
-        double destY = enemy.getTranslateY() + (movingCoords.getY()) * GRID_CELL_SIDE;
-
-        t.setInterpolator(Interpolator.LINEAR);
-        t.setToX(destX);
-        t.setToY(destY);
-        t.setNode(enemy);
-        t.play();
+    private void placeEnemy(Enemy enemy, int x, int y) {
+        if (isToBeRendered(x, y)) {
+            double xCoord = (x - playerX + RENDERED_CELLS_X / 2 - 1) * GRID_CELL_SIDE;
+            double yCoord = (y - playerY + RENDERED_CELLS_Y / 2 - 1) * GRID_CELL_SIDE;
+            sink.placeEnemy(enemy, xCoord, yCoord);
+        }
     }
 
     /**
      * Draws the items that are on screen on the canvas.
      */
     private void drawItems() {
-        GraphicsContext gc = gameMap.getGraphicsContext2D();
-        ArrayList<Item> items = mapClass.getItemArray();
+        mapClass.getItemsInArea(playerX - RENDERED_CELLS_X / 2, playerY - RENDERED_CELLS_Y / 2,
+                playerX + RENDERED_CELLS_X / 2, playerY + RENDERED_CELLS_Y / 2, visibleItems);
 
-        for (Item item : items) {
+        for (Item item : visibleItems) {
             Point2D coord = item.getPosition();
             int x = (int) coord.getX();
             int y = (int) coord.getY();
@@ -302,91 +298,75 @@ public class MapRenderer {
             if (isToBeRendered(x, y)) {
                 double xCoord = (x - playerX + RENDERED_CELLS_X / 2) * GRID_CELL_SIDE;
                 double yCoord = (y - playerY + RENDERED_CELLS_Y / 2) * GRID_CELL_SIDE;
-                gc.drawImage(item.getImage(), xCoord, yCoord);
+                sink.drawItem(item, xCoord, yCoord);
+            }
+        }
+
+        //The item picked up at the end of the turn is already in the inventory, it stays drawn until the player
+        //gets to it.
+        if (animatedTurn != null && animatedTurn.getPickedItem() != null) {
+            Item item = animatedTurn.getPickedItem();
+            int x = (int) item.getPosition().getX();
+            int y = (int) item.getPosition().getY();
+            if (isToBeRendered(x, y)) {
+                sink.drawItem(item, (x - playerX + RENDERED_CELLS_X / 2) * GRID_CELL_SIDE,
+                        (y - playerY + RENDERED_CELLS_Y / 2) * GRID_CELL_SIDE);
             }
         }
     }
 
     /**
-     * Draw the game on the canvas.
+     * Draw the cells of the map around the player.
      */
     private void drawMap() {
-        // Get the Graphic Context of the canvas. This is what we draw on.
-        GraphicsContext gc = gameMap.getGraphicsContext2D();
-        gc.clearRect(0, 0, gameMap.getWidth(), gameMap.getHeight());
+        int cellsDrawn = sink.drawMap(map, playerX - RENDERED_CELLS_X / 2, playerY - RENDERED_CELLS_Y / 2);
+        performanceOverlay.setCellsDrawn(cellsDrawn);
+    }
 
-        for (int x = 0; x < RENDERED_CELLS_X; x++) {
-            for (int y = 0; y < RENDERED_CELLS_Y; y++) {
-                drawCell(x, y, gc);
-            }
-        }
+    /**
+     * Marks a cell of the map as changed, so it is drawn again even if it did not scroll into view.
+     *
+     * @param x coordinate of the cell on the map.
+     * @param y coordinate of the cell on the map.
+     */
+    public void invalidateCell(int x, int y) {
+        sink.invalidateCell(map, x, y);
+        sink.invalidateMinimap(x, y);
     }
 
     /**
-     * Draw the cell at the respective coordinates.
+     * Marks a cell as changed on the minimap only, e.g. when an item was picked up from it.
      *
-     * @param x  coordinate of the point we are drawing on the screen.
-     * @param y  coordinate of the point we are drawing on the screen.
-     * @param gc graphics context of the game.
-     **/
-    private void drawCell(int x, int y, GraphicsContext gc) {
-        Image cell = wall;
-
-        try {
-            cell = map[y + playerY - RENDERED_CELLS_Y / 2][x + playerX - RENDERED_CELLS_X / 2].getImage();
-        } catch (ArrayIndexOutOfBoundsException ignored) {
-        }
+     * @param x coordinate of the cell on the map.
+     * @param y coordinate of the cell on the map.
+     */
+    public void invalidateMinimap(int x, int y) {
+        sink.invalidateMinimap(x, y);
+    }
 
-        double xCoord = x * GRID_CELL_SIDE;
-        double yCoord = y * GRID_CELL_SIDE;
-        gc.drawImage(cell, xCoord, yCoord);
+    /**
+     * Shows the minimap if it is hidden, hides it otherwise.
+     */
+    public void toggleMinimap() {
+        sink.toggleMinimap();
     }
 
     /**
      * Executes the death sequence.
      */
     public void playerDeath() {
-        playAudioClip(SFX_DEATH);
         hasDied = true;
         if (isPaused) {
             unPause();
         }
         canMove = false;
-
-        gameGraphics.getChildren().remove(enemiesParent);
-        this.gameMap.getGraphicsContext2D().setFill(Color.BLACK);
-        this.gameMap.getGraphicsContext2D().fillRect(0, 0, CANVAS_WIDTH, CANVAS_HEIGHT);
-
-        Platform.runLater(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    Thread.sleep(1000);
-                    FadeTransition fd = new FadeTransition(Duration.millis(1000), player);
-                    fd.setFromValue(1.0f);
-                    fd.setToValue(0.0f);
-                    fd.play();
-                    fd.setOnFinished((ActionEvent e) -> {
-                        AnchorPane deathMenu = menus.getDeathMenu();
-                        deathMenu.setOpacity(0.0f);
-                        FadeTransition fdm = new FadeTransition(Duration.millis(1000), deathMenu);
-                        fdm.setFromValue(0.0f);
-                        fdm.setToValue(1.0f);
-                        fdm.play();
-                        root.getChildren().add(deathMenu);
-                    });
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }
-        });
+        sink.showDeath();
     }
 
     /**
      * Executes the death sequence.
      */
     public void renderGoal() {
-        playAudioClip(SFX_GOAL);
         Map.getInstance().updateProfile();
         Map.getInstance().saveScore();
         drawGame(0, 0);
@@ -397,26 +377,7 @@ public class MapRenderer {
         }
 
         canMove = false;
-        FadeTransition fd = new FadeTransition(Duration.millis(1000), player);
-        fd.setFromValue(1.0f);
-        fd.setToValue(0.0f);
-        fd.play();
-        blackPause.setOpacity(0.0f);
-        FadeTransition fdScreen = new FadeTransition(Duration.millis(1000), blackPause);
-        fdScreen.setFromValue(0.0f);
-        fdScreen.setToValue(1.0f);
-        fdScreen.play();
-        blackPause.getGraphicsContext2D().fillRect(0, 0, CANVAS_WIDTH, CANVAS_HEIGHT);
-
-        fd.setOnFinished((ActionEvent e) -> {
-            AnchorPane goalMenu = menus.getGoalMenu();
-            goalMenu.setOpacity(0.0f);
-            FadeTransition fdm = new FadeTransition(Duration.millis(1000), goalMenu);
-            fdm.setFromValue(0.0f);
-            fdm.setToValue(1.0f);
-            fdm.play();
-            root.getChildren().add(goalMenu);
-        });
+        sink.showGoal();
     }
 
     /**
@@ -428,8 +389,7 @@ public class MapRenderer {
         }
         canMove = false;
         isPaused = true;
-        blackPause.getGraphicsContext2D().fillRect(0, 0, CANVAS_WIDTH, CANVAS_HEIGHT);
-        root.getChildren().add(menus.getPauseMenu());
+        sink.showPause(true);
     }
 
 
@@ -439,8 +399,7 @@ public class MapRenderer {
     public void unPause() {
         canMove = true;
         isPaused = false;
-        blackPause.getGraphicsContext2D().clearRect(0, 0, CANVAS_WIDTH, CANVAS_HEIGHT);
-        root.getChildren().remove(menus.getPauseMenu());
+        sink.showPause(false);
     }
 
     /**
@@ -452,30 +411,125 @@ public class MapRenderer {
         return canMove;
     }
 
+    /**
+     * Check if a turn is being animated.
+     *
+     * @return True until the animation of the last turn, teleport included, is over, else False.
+     */
+    public boolean isAnimating() {
+        return animatedTurn != null;
+    }
+
+    /**
+     * Records the delay between a key press and the turn it played.
+     *
+     * @param nanos The delay in nanoseconds.
+     */
+    public void recordInputLatency(long nanos) {
+        performanceOverlay.record(PerformanceOverlay.INPUT_LATENCY, nanos);
+    }
+
     /**
      * Set the current sprite for the player.
      *
      * @param playerSprite Current sprite.
      */
     public void setPlayerSprite(Image playerSprite) {
-        player.setImage(playerSprite);
+        sink.setPlayerSprite(playerSprite);
     }
 
     /**
-     * Get the animation time in nano seconds.
+     * Get the animation time in milliseconds.
      *
      * @return The animation time.
      */
     public long getAnimationTime() {
-        return (long) this.animationTime * 1000;
+        return (long) (this.animationTime * 1000);
+    }
+
+    /**
+     * Set the animation of the player's sprite, its frames are advanced by the frame loop.
+     *
+     * @param playerAnimation The animation.
+     */
+    public void setPlayerAnimation(SpriteAnimation playerAnimation) {
+        sink.setPlayerAnimation(playerAnimation);
+    }
+
+    /**
+     * Shows the performance overlay if it is hidden, hides it otherwise.
+     */
+    public void togglePerformanceOverlay() {
+        performanceOverlay.toggle();
+    }
+
+    /**
+     * Writes the timings of the performance overlay to the performance log.
+     */
+    public void dumpPerformanceStats() {
+        performanceOverlay.dump();
+    }
+
+    /**
+     * Get the overlay the timings of the game are recorded in.
+     *
+     * @return The performance overlay.
+     */
+    public PerformanceOverlay getPerformanceOverlay() {
+        return performanceOverlay;
+    }
+
+    /**
+     * Get the x coordinate of the player on screen, which only reaches the one on the map at the end of the
+     * animation of a move.
+     *
+     * @return x coordinate of the player.
+     */
+    public int getPlayerX() {
+        return playerX;
+    }
+
+    /**
+     * Get the y coordinate of the player on screen, which only reaches the one on the map at the end of the
+     * animation of a move.
+     *
+     * @return y coordinate of the player.
+     */
+    public int getPlayerY() {
+        return playerY;
+    }
+
+    /**
+     * Get the map that is rendered.
+     *
+     * @return The map.
+     */
+    public Map getMap() {
+        return mapClass;
+    }
+
+    /**
+     * Get the sink the game is rendered on.
+     *
+     * @return The render sink.
+     */
+    public RenderSink getSink() {
+        return sink;
+    }
+
+    /**
+     * Stops the frame loop, used when leaving the level.
+     */
+    public void stopFrameLoop() {
+        sink.stop();
     }
 
     /**
      * Mirrors the player's sprite.
      */
     public void reversePlayerSprite() {
-        player.setScaleX(player.getScaleX() * (-1));
         playerIsReversed = !playerIsReversed;
+        sink.setPlayerReversed(playerIsReversed);
     }
 
     /**
@@ -491,14 +545,14 @@ public class MapRenderer {
      *
      */
     public void makePlayerInvisible() {
-        player.setOpacity(0.0f);
+        sink.setPlayerVisible(false);
     }
 
     /**
      *
      */
     public void makePlayerVisible() {
-        player.setOpacity(1.0f);
+        sink.setPlayerVisible(true);
     }
 
     /**
@@ -507,7 +561,6 @@ public class MapRenderer {
      * @param time animation time.
      */
     public void setAnimationTime(float time) {
-        translateTransition.setDuration(Duration.seconds(time));
         animationTime = time;
     }
 
@@ -519,14 +572,4 @@ public class MapRenderer {
     public boolean isPaused() {
         return isPaused;
     }
-
-    /**
-     * Plays the specified audio file, used for short SFX.
-     *
-     * @param path path to the audio file.
-     */
-    private void playAudioClip(String path) {
-        AudioClip soundFX = new AudioClip(new File(path).toURI().toString());
-        soundFX.play();
-    }
 }
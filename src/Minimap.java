@@ -0,0 +1,312 @@
+import javafx.geometry.Point2D;
+import javafx.geometry.Pos;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.StackPane;
+import javafx.util.Callback;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class shows the whole map in a corner of the screen, one pixel per cell.
+ * <p>
+ * The pixels live in an int buffer shared with the displayed image. The map is painted once, after that only the
+ * pixels of the cells that changed are painted again and only the tiles holding them are sent to the screen, so two
+ * changes far apart do not send the whole map. When most of the tiles changed the whole image is sent at once.
+ */
+public class Minimap {
+    private static final int PLAYER_COLOUR = 0xFFFFFFFF;
+    private static final int ENEMY_COLOUR = 0xFFFF0000;
+    private static final int ITEM_COLOUR = 0xFF00FFFF;
+    private static final int GROUND_COLOUR = 0xFF5A4A3A;
+    private static final int WALL_COLOUR = 0xFF202020;
+    private static final int FIRE_COLOUR = 0xFFFF8000;
+    private static final int WATER_COLOUR = 0xFF2060FF;
+    private static final int GOAL_COLOUR = 0xFFFFE000;
+    private static final int TELEPORTER_COLOUR = 0xFFB040FF;
+    private static final int TOKEN_DOOR_COLOUR = 0xFFC0A000;
+    private static final int DOOR_COLOUR = 0xFF806040;
+    private static final int TILE_SIZE = 64; //Side of the tiles sent to the screen, in pixels.
+    //Past this share of dirty tiles, one upload of the whole image is cheaper than an upload per tile.
+    private static final int FULL_UPLOAD_DIVISOR = 4;
+    private static final int DEFAULT_DIRTY_CAPACITY = 64;
+    private Map map;
+    private int width;
+    private int height;
+    private IntBuffer pixels;
+    private PixelBuffer<IntBuffer> pixelBuffer;
+    private ImageView view;
+    private int[] dirtyCells; //The cells waiting to be painted again, the cell of (x, y) being y * width + x.
+    private int dirtyCellCount;
+    private int tilesX;
+    private Rectangle2D[] tileBounds; //The rectangle of every tile, made once so a refresh allocates nothing.
+    private boolean[] tileDirty;
+    private int[] dirtyTiles;
+    private int dirtyTileCount;
+    private int uploadedTile; //The tile sent by uploadTile.
+    private Callback<PixelBuffer<IntBuffer>, Rectangle2D> uploadTile;
+    private int pixelsPainted;
+    private int uploads;
+
+    /**
+     * Creates the minimap of a map and paints it.
+     *
+     * @param map  the map shown.
+     * @param size the largest side of the minimap on screen, in pixels.
+     */
+    public Minimap(Map map, int size) {
+        this.map = map;
+        Cell[][] cells = map.getCellArray();
+        height = Math.max(1, cells.length);
+        width = Math.max(1, cells.length == 0 ? 0 : cells[0].length);
+        dirtyCells = new int[DEFAULT_DIRTY_CAPACITY];
+        dirtyCellCount = 0;
+
+        tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+        int tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+        tileBounds = new Rectangle2D[tilesX * tilesY];
+        for (int tileY = 0; tileY < tilesY; tileY++) {
+            for (int tileX = 0; tileX < tilesX; tileX++) {
+                int minX = tileX * TILE_SIZE;
+                int minY = tileY * TILE_SIZE;
+                tileBounds[tileY * tilesX + tileX] = new Rectangle2D(minX, minY,
+                        Math.min(TILE_SIZE, width - minX), Math.min(TILE_SIZE, height - minY));
+            }
+        }
+        tileDirty = new boolean[tileBounds.length];
+        dirtyTiles = new int[tileBounds.length];
+        dirtyTileCount = 0;
+        uploadTile = buffer -> tileBounds[uploadedTile];
+
+        pixels = IntBuffer.allocate(width * height);
+        pixelBuffer = new PixelBuffer<>(width, height, pixels, PixelFormat.getIntArgbPreInstance());
+        view = new ImageView(new WritableImage(pixelBuffer));
+        view.setSmooth(false);
+        view.setPreserveRatio(true);
+        view.setFitWidth(size);
+        view.setFitHeight(size);
+        view.setOpacity(0.8f);
+        view.setMouseTransparent(true);
+        StackPane.setAlignment(view, Pos.TOP_RIGHT);
+
+        paintAll();
+    }
+
+    /**
+     * Get the node that displays the minimap.
+     *
+     * @return The minimap's node.
+     */
+    public ImageView getNode() {
+        return view;
+    }
+
+    /**
+     * Shows the minimap if it is hidden, hides it otherwise.
+     */
+    public void toggle() {
+        view.setVisible(!view.isVisible());
+    }
+
+    /**
+     * Marks a cell as changed, e.g. a door that opened or an enemy that left or entered it.
+     * The cell is painted again on the next refresh.
+     *
+     * @param x coordinate of the cell on the map.
+     * @param y coordinate of the cell on the map.
+     */
+    public void invalidate(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return;
+        }
+        if (dirtyCellCount == dirtyCells.length) {
+            dirtyCells = Arrays.copyOf(dirtyCells, dirtyCells.length * 2);
+        }
+        dirtyCells[dirtyCellCount++] = y * width + x;
+
+        int tile = (y / TILE_SIZE) * tilesX + x / TILE_SIZE;
+        if (!tileDirty[tile]) {
+            tileDirty[tile] = true;
+            dirtyTiles[dirtyTileCount++] = tile;
+        }
+    }
+
+    /**
+     * Marks the cells the enemies left and entered during a turn as changed.
+     *
+     * @param turn the turn, holding the move of every enemy of the map.
+     */
+    public void invalidateEnemyMoves(TurnResult turn) {
+        ArrayList<Enemy> enemies = map.getEnemyArray();
+        for (int i = 0; i < turn.getEnemyCount(); i++) {
+            Point2D move = turn.getEnemyMove(i);
+            if (move.getX() != 0 || move.getY() != 0) {
+                Point2D position = enemies.get(i).getPosition();
+                int x = (int) position.getX();
+                int y = (int) position.getY();
+                invalidate(x - (int) move.getX(), y - (int) move.getY());
+                invalidate(x, y);
+            }
+        }
+    }
+
+    /**
+     * Paints the changed cells and sends the tiles holding them to the screen.
+     */
+    public void refresh() {
+        if (dirtyCellCount == 0) {
+            return;
+        }
+        for (int i = 0; i < dirtyCellCount; i++) {
+            int cell = dirtyCells[i];
+            pixels.put(cell, getColour(cell % width, cell / width));
+        }
+        pixelsPainted += dirtyCellCount;
+        dirtyCellCount = 0;
+
+        if (dirtyTileCount * FULL_UPLOAD_DIVISOR > tileBounds.length) {
+            pixelBuffer.updateBuffer(buffer -> null);
+            uploads++;
+        } else {
+            for (int i = 0; i < dirtyTileCount; i++) {
+                uploadedTile = dirtyTiles[i];
+                pixelBuffer.updateBuffer(uploadTile);
+                uploads++;
+            }
+        }
+        clearDirtyTiles();
+    }
+
+    /**
+     * Paints every cell of the map, then the items, the enemies and the player on top.
+     */
+    public void paintAll() {
+        Cell[][] cells = map.getCellArray();
+        for (int y = 0; y < cells.length; y++) {
+            for (int x = 0; x < cells[y].length; x++) {
+                pixels.put(y * width + x, getCellColour(cells[y][x]));
+            }
+        }
+        for (Item item : map.getItemArray()) {
+            paint(item.getPosition(), ITEM_COLOUR);
+        }
+        for (Enemy enemy : map.getEnemyArray()) {
+            paint(enemy.getPosition(), ENEMY_COLOUR);
+        }
+        paint(map.getPlayer().getPosition(), PLAYER_COLOUR);
+        pixelsPainted += width * height;
+
+        dirtyCellCount = 0;
+        clearDirtyTiles();
+        pixelBuffer.updateBuffer(buffer -> null);
+        uploads++;
+    }
+
+    /**
+     * Get the number of pixels painted since the minimap was created.
+     *
+     * @return the number of pixels.
+     */
+    public int getPixelsPainted() {
+        return pixelsPainted;
+    }
+
+    /**
+     * Get the number of times pixels were sent to the screen since the minimap was created.
+     *
+     * @return the number of uploads.
+     */
+    public int getUploads() {
+        return uploads;
+    }
+
+    /**
+     * Forgets which tiles changed, once they were sent to the screen.
+     */
+    private void clearDirtyTiles() {
+        for (int i = 0; i < dirtyTileCount; i++) {
+            tileDirty[dirtyTiles[i]] = false;
+        }
+        dirtyTileCount = 0;
+    }
+
+    /**
+     * Sets the pixel of a position, if it is on the map.
+     *
+     * @param position the position.
+     * @param colour   the colour of the pixel.
+     */
+    private void paint(Point2D position, int colour) {
+        int x = (int) position.getX();
+        int y = (int) position.getY();
+        if (x >= 0 && y >= 0 && x < width && y < height) {
+            pixels.put(y * width + x, colour);
+        }
+    }
+
+    /**
+     * Get the colour of a cell with whatever stands on it. The player is shown above the enemies,
+     * and the enemies above the items.
+     *
+     * @param x coordinate of the cell on the map.
+     * @param y coordinate of the cell on the map.
+     * @return the colour of the cell.
+     */
+    private int getColour(int x, int y) {
+        Point2D player = map.getPlayer().getPosition();
+        if ((int) player.getX() == x && (int) player.getY() == y) {
+            return PLAYER_COLOUR;
+        }
+        if (map.isEnemyAt(x, y)) {
+            return ENEMY_COLOUR;
+        }
+        if (map.getItemAt(x, y) != null) {
+            return ITEM_COLOUR;
+        }
+        Cell[][] cells = map.getCellArray();
+        return getCellColour(cells[y][x]);
+    }
+
+    /**
+     * Get the colour of a cell type.
+     *
+     * @param cell the cell.
+     * @return the colour of the cell.
+     */
+    private static int getCellColour(Cell cell) {
+        if (cell == null) {
+            return WALL_COLOUR;
+        } else if (cell.getClass() == Ground.class) {
+            return GROUND_COLOUR;
+        } else if (cell.getClass() == Wall.class) {
+            return WALL_COLOUR;
+        } else if (cell.getClass() == Fire.class) {
+            return FIRE_COLOUR;
+        } else if (cell.getClass() == Water.class) {
+            return WATER_COLOUR;
+        } else if (cell.getClass() == Goal.class) {
+            return GOAL_COLOUR;
+        } else if (cell.getClass() == Teleporter.class) {
+            return TELEPORTER_COLOUR;
+        } else if (cell.getClass() == TokenDoor.class) {
+            return TOKEN_DOOR_COLOUR;
+        } else if (cell.getClass() == KeyDoor.class) {
+            switch (((KeyDoor) cell).getColour().toLowerCase()) {
+                case "red":
+                    return 0xFFC02020;
+                case "blue":
+                    return 0xFF2020C0;
+                case "green":
+                    return 0xFF20C020;
+                default:
+                    return DOOR_COLOUR;
+            }
+        }
+        return DOOR_COLOUR;
+    }
+}
@@ -0,0 +1,288 @@
+/**
+ * This class remembers the first steps of the paths searched on the map, so a search asked again, e.g. by
+ * enemies standing in the same corridor or by a player walking back and forth, is answered without searching.
+ * <p>
+ * A result is kept for a start cell, a goal cell and the search that found it. Every result belongs to a version
+ * of the cells of the map, and all of them are dropped as soon as a cell is replaced. When the cache is full the
+ * result that was used the longest time ago is dropped. The results are kept in arrays, a hash table with linear
+ * probing and a doubly linked list from the most to the least recently used, so nothing is allocated once the
+ * cache was created.
+ */
+public class PathCache {
+    public static final int MISSING = -2; //Returned when a result is not in the cache.
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final int NONE = -1;
+    private final int capacity;
+    private final int tableMask;
+    private long[] keys; //The search, start and goal of every entry.
+    private int[] steps; //The first step of every entry, -1 if there is no path.
+    private int[] newer; //The entry used just after every entry.
+    private int[] older; //The entry used just before every entry.
+    private int[] table; //The entry stored in every slot of the hash table, NONE if the slot is empty.
+    private int size;
+    private int newest = NONE;
+    private int oldest = NONE;
+    private int version;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private int invalidations;
+
+    /**
+     * Creates a cache holding a default number of results.
+     */
+    public PathCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param capacity number of results the cache can hold.
+     */
+    public PathCache(int capacity) {
+        this.capacity = capacity;
+        int tableSize = Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1) * 2;
+        tableMask = tableSize - 1;
+        keys = new long[capacity];
+        steps = new int[capacity];
+        newer = new int[capacity];
+        older = new int[capacity];
+        table = new int[tableSize];
+        java.util.Arrays.fill(table, NONE);
+    }
+
+    /**
+     * Looks for the first step of a path.
+     *
+     * @param cellVersion the current version of the cells of the map.
+     * @param search      the search the path is found with, e.g. SmartTargetingEnemy.A_STAR.
+     * @param start       index of the start cell.
+     * @param goal        index of the goal cell.
+     * @return index of the first step, -1 if there is no path, or MISSING if the result is not in the cache.
+     */
+    public synchronized int getNextStep(int cellVersion, int search, int start, int goal) {
+        checkVersion(cellVersion);
+        int entry = table[findSlot(getKey(search, start, goal))];
+        if (entry == NONE) {
+            misses++;
+            return MISSING;
+        }
+        hits++;
+        moveToNewest(entry);
+        return steps[entry];
+    }
+
+    /**
+     * Stores the first step of a path, dropping the least recently used result if the cache is full.
+     *
+     * @param cellVersion the version of the cells of the map the path was found on.
+     * @param search      the search the path was found with.
+     * @param start       index of the start cell.
+     * @param goal        index of the goal cell.
+     * @param step        index of the first step, -1 if there is no path.
+     */
+    public synchronized void put(int cellVersion, int search, int start, int goal, int step) {
+        checkVersion(cellVersion);
+        long key = getKey(search, start, goal);
+        int slot = findSlot(key);
+        if (table[slot] != NONE) {
+            steps[table[slot]] = step;
+            moveToNewest(table[slot]);
+            return;
+        }
+
+        int entry;
+        if (size < capacity) {
+            entry = size++;
+        } else {
+            entry = oldest;
+            unlink(entry);
+            removeSlot(findSlot(keys[entry]));
+            evictions++;
+            slot = findSlot(key);
+        }
+        keys[entry] = key;
+        steps[entry] = step;
+        table[slot] = entry;
+        linkAsNewest(entry);
+    }
+
+    /**
+     * Get the share of the lookups that were answered by the cache.
+     *
+     * @return the hit rate, between 0 and 1.
+     */
+    public synchronized double getHitRate() {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    /**
+     * Get the number of lookups answered by the cache.
+     *
+     * @return the number of hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of lookups the cache could not answer.
+     *
+     * @return the number of misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the number of results dropped to make room for new ones.
+     *
+     * @return the number of evictions.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Get the number of times every result was dropped because a cell of the map was replaced.
+     *
+     * @return the number of invalidations.
+     */
+    public synchronized int getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Get the number of results in the cache.
+     *
+     * @return the size of the cache.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Drops every result if they belong to another version of the cells.
+     *
+     * @param cellVersion the current version of the cells.
+     */
+    private void checkVersion(int cellVersion) {
+        if (cellVersion == version) {
+            return;
+        }
+        version = cellVersion;
+        if (size > 0) {
+            java.util.Arrays.fill(table, NONE);
+            size = 0;
+            newest = NONE;
+            oldest = NONE;
+            invalidations++;
+        }
+    }
+
+    /**
+     * Finds the slot of the hash table holding a key, or the empty slot where it would be stored.
+     *
+     * @param key the key.
+     * @return index of the slot.
+     */
+    private int findSlot(long key) {
+        int slot = hash(key);
+        while (table[slot] != NONE && keys[table[slot]] != key) {
+            slot = (slot + 1) & tableMask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties a slot of the hash table, moving back the entries after it so none of them is lost behind the
+     * empty slot.
+     *
+     * @param slot index of the slot.
+     */
+    private void removeSlot(int slot) {
+        table[slot] = NONE;
+        int next = (slot + 1) & tableMask;
+        while (table[next] != NONE) {
+            int home = hash(keys[table[next]]);
+            //The entry moves into the empty slot if that slot lies between its home and where it is now.
+            if (((next - home) & tableMask) >= ((next - slot) & tableMask)) {
+                table[slot] = table[next];
+                table[next] = NONE;
+                slot = next;
+            }
+            next = (next + 1) & tableMask;
+        }
+    }
+
+    /**
+     * Marks an entry as the most recently used.
+     *
+     * @param entry index of the entry.
+     */
+    private void moveToNewest(int entry) {
+        if (entry != newest) {
+            unlink(entry);
+            linkAsNewest(entry);
+        }
+    }
+
+    /**
+     * Adds an entry at the most recently used end of the list.
+     *
+     * @param entry index of the entry.
+     */
+    private void linkAsNewest(int entry) {
+        older[entry] = newest;
+        newer[entry] = NONE;
+        if (newest != NONE) {
+            newer[newest] = entry;
+        }
+        newest = entry;
+        if (oldest == NONE) {
+            oldest = entry;
+        }
+    }
+
+    /**
+     * Takes an entry out of the list.
+     *
+     * @param entry index of the entry.
+     */
+    private void unlink(int entry) {
+        if (older[entry] != NONE) {
+            newer[older[entry]] = newer[entry];
+        } else {
+            oldest = newer[entry];
+        }
+        if (newer[entry] != NONE) {
+            older[newer[entry]] = older[entry];
+        } else {
+            newest = older[entry];
+        }
+    }
+
+    /**
+     * Spreads a key over the slots of the hash table.
+     *
+     * @param key the key.
+     * @return index of the home slot of the key.
+     */
+    private int hash(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 32) & tableMask;
+    }
+
+    /**
+     * Packs a search, a start cell and a goal cell in a single key.
+     *
+     * @param search the search.
+     * @param start  index of the start cell.
+     * @param goal   index of the goal cell.
+     * @return the key.
+     */
+    private static long getKey(int search, int start, int goal) {
+        return ((long) search << 56) | ((long) start << 28) | goal;
+    }
+}
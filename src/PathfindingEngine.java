@@ -0,0 +1,453 @@
+import java.util.Arrays;
+
+/**
+ * This class runs A* searches on the walkability of a map, moving in eight directions.
+ * <p>
+ * The costs, parents and states of the cells are kept in arrays sized to the map and reused by every search.
+ * A cell's values only count if they were written during the current search, which is told by a generation
+ * number, so the arrays never have to be cleared. Once the arrays were sized, a search allocates nothing.
+ */
+public class PathfindingEngine {
+    private static final int STRAIGHT_COST = 10;
+    private static final int DIAGONAL_COST = 14;
+    //The eight directions a step can take.
+    private static final int[] DIRECTION_X = {0, -1, 1, 0, -1, 1, -1, 1};
+    private static final int[] DIRECTION_Y = {-1, 0, 0, 1, -1, -1, 1, 1};
+    private int width;
+    private int height;
+    private int[] costs; //The cost of the best known path from the start to every cell.
+    private int[] parents; //The cell every cell is reached from.
+    private int[] seen; //The generation in which a cell was reached.
+    private int[] closed; //The generation in which a cell was expanded.
+    private int generation;
+    private IndexedMinHeap open;
+    private int pathCost;
+    private int searches;
+    private long expandedCells;
+
+    /**
+     * Creates an engine whose arrays are sized by its first search.
+     */
+    public PathfindingEngine() {
+        this(0, 0);
+    }
+
+    /**
+     * Creates an engine for maps of a given size.
+     *
+     * @param width  number of cells on a row of the map.
+     * @param height number of rows of the map.
+     */
+    public PathfindingEngine(int width, int height) {
+        open = new IndexedMinHeap(0);
+        resize(width, height);
+    }
+
+    /**
+     * Sizes the arrays of the engine to a map. Nothing happens if the size did not change.
+     *
+     * @param width  number of cells on a row of the map.
+     * @param height number of rows of the map.
+     */
+    public void resize(int width, int height) {
+        if (this.width == width && this.height == height && costs != null) {
+            return;
+        }
+        this.width = width;
+        this.height = height;
+        costs = new int[width * height];
+        parents = new int[width * height];
+        seen = new int[width * height];
+        closed = new int[width * height];
+        generation = 0;
+        open.ensureCapacity(width * height);
+    }
+
+    /**
+     * Searches a shortest path between two cells and gets its first step.
+     *
+     * @param walkability   the walkability of the map.
+     * @param movementClass the way of moving the path is searched for, WalkabilityMap.PLAYER or ENEMY.
+     * @param startX        x coordinate of the start.
+     * @param startY        y coordinate of the start.
+     * @param goalX         x coordinate of the goal.
+     * @param goalY         y coordinate of the goal.
+     * @return index (y * width + x) of the first cell of the path, the start if it is the goal, or -1 if there is
+     * no path. The goal has to be walkable to be reached.
+     */
+    public int findNextStep(WalkabilityMap walkability, int movementClass, int startX, int startY, int goalX,
+                            int goalY) {
+        resize(walkability.getWidth(), walkability.getHeight());
+        pathCost = -1;
+        if (!isInside(startX, startY) || !walkability.isWalkable(movementClass, goalX, goalY)) {
+            return -1;
+        }
+        int start = startY * width + startX;
+        int goal = goalY * width + goalX;
+        if (start == goal) {
+            pathCost = 0;
+            return start;
+        }
+
+        nextGeneration();
+        searches++;
+        costs[start] = 0;
+        parents[start] = -1;
+        seen[start] = generation;
+        open.insert(start, getHeuristic(startX, startY, goalX, goalY));
+
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            closed[current] = generation;
+            expandedCells++;
+
+            if (current == goal) {
+                open.clear();
+                pathCost = costs[goal];
+                return getFirstStep(start, goal);
+            }
+
+            int x = current % width;
+            int y = current / width;
+            for (int i = 0; i < DIRECTION_X.length; i++) {
+                int nextX = x + DIRECTION_X[i];
+                int nextY = y + DIRECTION_Y[i];
+                if (!walkability.isWalkable(movementClass, nextX, nextY)) {
+                    continue;
+                }
+                int next = nextY * width + nextX;
+                if (closed[next] == generation) {
+                    continue;
+                }
+
+                boolean isDiagonal = DIRECTION_X[i] != 0 && DIRECTION_Y[i] != 0;
+                int cost = costs[current] + (isDiagonal ? DIAGONAL_COST : STRAIGHT_COST);
+                if (seen[next] != generation) {
+                    seen[next] = generation;
+                    costs[next] = cost;
+                    parents[next] = current;
+                    open.insert(next, cost + getHeuristic(nextX, nextY, goalX, goalY));
+                } else if (cost < costs[next]) {
+                    costs[next] = cost;
+                    parents[next] = current;
+                    open.decreaseKey(next, cost + getHeuristic(nextX, nextY, goalX, goalY));
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Searches a shortest path between two cells with Jump Point Search and gets its first step.
+     * <p>
+     * Instead of adding every neighbour of a cell to the open list, the search runs along straight and diagonal
+     * lines and only stops on cells where a wall forces a turn, so an open room is crossed in a few expansions.
+     * The path has the same cost as the one found by {@link #findNextStep}, but when several paths have the same
+     * cost another one may be picked.
+     *
+     * @param walkability   the walkability of the map.
+     * @param movementClass the way of moving the path is searched for, WalkabilityMap.PLAYER or ENEMY.
+     * @param startX        x coordinate of the start.
+     * @param startY        y coordinate of the start.
+     * @param goalX         x coordinate of the goal.
+     * @param goalY         y coordinate of the goal.
+     * @return index (y * width + x) of the first cell of the path, the start if it is the goal, or -1 if there is
+     * no path. The goal has to be walkable to be reached.
+     */
+    public int findNextJumpStep(WalkabilityMap walkability, int movementClass, int startX, int startY, int goalX,
+                                int goalY) {
+        resize(walkability.getWidth(), walkability.getHeight());
+        pathCost = -1;
+        if (!isInside(startX, startY) || !walkability.isWalkable(movementClass, goalX, goalY)) {
+            return -1;
+        }
+        int start = startY * width + startX;
+        int goal = goalY * width + goalX;
+        if (start == goal) {
+            pathCost = 0;
+            return start;
+        }
+
+        nextGeneration();
+        searches++;
+        costs[start] = 0;
+        parents[start] = -1;
+        seen[start] = generation;
+        open.insert(start, getHeuristic(startX, startY, goalX, goalY));
+
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            closed[current] = generation;
+            expandedCells++;
+
+            if (current == goal) {
+                open.clear();
+                pathCost = costs[goal];
+                int jumpPoint = getFirstStep(start, goal);
+                //The first jump is a straight or diagonal line, so its first cell is one step towards it.
+                return (startY + Integer.signum(jumpPoint / width - startY)) * width
+                        + startX + Integer.signum(jumpPoint % width - startX);
+            }
+
+            int x = current % width;
+            int y = current / width;
+            for (int i = 0; i < DIRECTION_X.length; i++) {
+                if (!isJumpDirection(walkability, movementClass, current, x, y, DIRECTION_X[i], DIRECTION_Y[i])) {
+                    continue;
+                }
+                int next = jump(walkability, movementClass, x, y, DIRECTION_X[i], DIRECTION_Y[i], goalX, goalY);
+                if (next == -1 || closed[next] == generation) {
+                    continue;
+                }
+
+                int nextX = next % width;
+                int nextY = next / width;
+                int cost = costs[current] + getHeuristic(x, y, nextX, nextY);
+                if (seen[next] != generation) {
+                    seen[next] = generation;
+                    costs[next] = cost;
+                    parents[next] = current;
+                    open.insert(next, cost + getHeuristic(nextX, nextY, goalX, goalY));
+                } else if (cost < costs[next]) {
+                    costs[next] = cost;
+                    parents[next] = current;
+                    open.decreaseKey(next, cost + getHeuristic(nextX, nextY, goalX, goalY));
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the cost of the path found by the last search.
+     *
+     * @return cost of the path, or -1 if no path was found.
+     */
+    public int getPathCost() {
+        return pathCost;
+    }
+
+    /**
+     * Retrieves the number of searches run by the engine.
+     *
+     * @return number of searches.
+     */
+    public int getSearches() {
+        return searches;
+    }
+
+    /**
+     * Retrieves the number of cells expanded by every search of the engine.
+     *
+     * @return number of expanded cells.
+     */
+    public long getExpandedCells() {
+        return expandedCells;
+    }
+
+    /**
+     * Walks back the parents from the goal to find the first step of the path.
+     *
+     * @param start index of the start.
+     * @param goal  index of the goal.
+     * @return index of the first step.
+     */
+    private int getFirstStep(int start, int goal) {
+        int step = goal;
+        while (parents[step] != start) {
+            step = parents[step];
+        }
+        return step;
+    }
+
+    /**
+     * Checks if a jump point search has to look in a direction from a cell. From the start every direction is
+     * looked at, from any other cell only the ones a shortest path could take after coming from its parent.
+     *
+     * @param walkability   the walkability of the map.
+     * @param movementClass the way of moving the path is searched for.
+     * @param cell          index of the cell.
+     * @param x             x coordinate of the cell.
+     * @param y             y coordinate of the cell.
+     * @param directionX    horizontal part of the direction.
+     * @param directionY    vertical part of the direction.
+     * @return True if the direction has to be searched, else False.
+     */
+    private boolean isJumpDirection(WalkabilityMap walkability, int movementClass, int cell, int x, int y,
+                                    int directionX, int directionY) {
+        if (!walkability.isWalkable(movementClass, x + directionX, y + directionY)) {
+            return false;
+        }
+        if (parents[cell] == -1) {
+            return true;
+        }
+        int fromX = Integer.signum(x - parents[cell] % width);
+        int fromY = Integer.signum(y - parents[cell] / width);
+
+        if (fromX != 0 && fromY != 0) {
+            //After a diagonal step, keep going along it or either of its straight parts, or turn around a wall.
+            if ((directionX == fromX || directionX == 0) && (directionY == fromY || directionY == 0)) {
+                return true;
+            }
+            return directionX == -fromX && directionY == fromY
+                    && !walkability.isWalkable(movementClass, x - fromX, y)
+                    || directionX == fromX && directionY == -fromY
+                    && !walkability.isWalkable(movementClass, x, y - fromY);
+        }
+        if (fromX != 0) {
+            //After a horizontal step, keep going or turn diagonally around a wall above or below.
+            return directionX == fromX && (directionY == 0
+                    || !walkability.isWalkable(movementClass, x, y + directionY));
+        }
+        return directionY == fromY && (directionX == 0
+                || !walkability.isWalkable(movementClass, x + directionX, y));
+    }
+
+    /**
+     * Runs from a cell in a direction until reaching the goal, a wall, or a cell where a shortest path could
+     * turn because of a wall next to it. Diagonal runs also stop where a straight run would find such a cell.
+     *
+     * @param walkability   the walkability of the map.
+     * @param movementClass the way of moving the path is searched for.
+     * @param x             x coordinate of the cell the run starts from.
+     * @param y             y coordinate of the cell the run starts from.
+     * @param directionX    horizontal part of the direction.
+     * @param directionY    vertical part of the direction.
+     * @param goalX         x coordinate of the goal.
+     * @param goalY         y coordinate of the goal.
+     * @return index of the cell the run stopped on, or -1 if it ran into a wall.
+     */
+    private int jump(WalkabilityMap walkability, int movementClass, int x, int y, int directionX, int directionY,
+                     int goalX, int goalY) {
+        if (directionX == 0 || directionY == 0) {
+            return jumpStraight(walkability, movementClass, x, y, directionX, directionY, goalX, goalY);
+        }
+        while (true) {
+            x += directionX;
+            y += directionY;
+            if (!walkability.isWalkable(movementClass, x, y)) {
+                return -1;
+            }
+            if (x == goalX && y == goalY
+                    || !walkability.isWalkable(movementClass, x - directionX, y)
+                    && walkability.isWalkable(movementClass, x - directionX, y + directionY)
+                    || !walkability.isWalkable(movementClass, x, y - directionY)
+                    && walkability.isWalkable(movementClass, x + directionX, y - directionY)) {
+                return y * width + x;
+            }
+            if (jumpStraight(walkability, movementClass, x, y, directionX, 0, goalX, goalY) != -1
+                    || jumpStraight(walkability, movementClass, x, y, 0, directionY, goalX, goalY) != -1) {
+                return y * width + x;
+            }
+        }
+    }
+
+    /**
+     * Runs along a row or a column, reading the walkability of 64 cells at once. A cell stops
+     * the run if a cell beside it is a wall but the next one in the direction of the run is not.
+     *
+     * @param walkability   the walkability of the map.
+     * @param movementClass the way of moving the path is searched for.
+     * @param x             x coordinate of the cell the run starts from.
+     * @param y             y coordinate of the cell the run starts from.
+     * @param directionX    horizontal part of the direction, 0 for a vertical run.
+     * @param directionY    vertical part of the direction, 0 for a horizontal run.
+     * @param goalX         x coordinate of the goal.
+     * @param goalY         y coordinate of the goal.
+     * @return index of the cell the run stopped on, or -1 if it ran into a wall.
+     */
+    private int jumpStraight(WalkabilityMap walkability, int movementClass, int x, int y, int directionX,
+                             int directionY, int goalX, int goalY) {
+        //The sides of the run, one cell across it in each direction.
+        int sideX = directionY;
+        int sideY = directionX;
+        x += directionX;
+        y += directionY;
+        while (true) {
+            long line = getLineBits(walkability, movementClass, x, y, directionX, directionY);
+            long forced = ~getLineBits(walkability, movementClass, x + sideX, y + sideY, directionX, directionY)
+                    & getLineBits(walkability, movementClass, x + sideX + directionX, y + sideY + directionY,
+                    directionX, directionY)
+                    | ~getLineBits(walkability, movementClass, x - sideX, y - sideY, directionX, directionY)
+                    & getLineBits(walkability, movementClass, x - sideX + directionX, y - sideY + directionY,
+                    directionX, directionY);
+            int goalOffset = (goalX - x) * directionX + (goalY - y) * directionY;
+            boolean isGoalOnLine = directionX != 0 ? goalY == y : goalX == x;
+            if (isGoalOnLine && goalOffset >= 0 && goalOffset < 64) {
+                forced |= 1L << goalOffset;
+            }
+
+            int wall = Long.numberOfTrailingZeros(~line);
+            int stop = Long.numberOfTrailingZeros(forced);
+            if (stop < wall) {
+                return (y + stop * directionY) * width + x + stop * directionX;
+            }
+            if (wall < 64) {
+                return -1;
+            }
+            x += 64 * directionX;
+            y += 64 * directionY;
+        }
+    }
+
+    /**
+     * Reads the walkability of 64 cells of a row or a column, going in the direction of a run.
+     *
+     * @param walkability   the walkability of the map.
+     * @param movementClass the way of moving the path is searched for.
+     * @param x             x coordinate of the first cell.
+     * @param y             y coordinate of the first cell.
+     * @param directionX    horizontal part of the direction, 0 for a column.
+     * @param directionY    vertical part of the direction, 0 for a row.
+     * @return the bits of the cells, bit i for the cell i steps away.
+     */
+    private static long getLineBits(WalkabilityMap walkability, int movementClass, int x, int y, int directionX,
+                                    int directionY) {
+        if (directionX > 0) {
+            return walkability.getRowBits(movementClass, x, y);
+        } else if (directionX < 0) {
+            return walkability.getRowBitsBackwards(movementClass, x, y);
+        } else if (directionY > 0) {
+            return walkability.getColumnBits(movementClass, x, y);
+        }
+        return walkability.getColumnBitsBackwards(movementClass, x, y);
+    }
+
+    /**
+     * Starts a new generation, clearing the arrays only when the counter runs out.
+     */
+    private void nextGeneration() {
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            generation = 0;
+        }
+        generation++;
+    }
+
+    /**
+     * Estimates the cost between two cells, the cost of the path if there were no walls.
+     *
+     * @param x     x coordinate of the cell.
+     * @param y     y coordinate of the cell.
+     * @param goalX x coordinate of the goal.
+     * @param goalY y coordinate of the goal.
+     * @return estimated cost.
+     */
+    private static int getHeuristic(int x, int y, int goalX, int goalY) {
+        int distX = Math.abs(x - goalX);
+        int distY = Math.abs(y - goalY);
+        return STRAIGHT_COST * (distX + distY) + (DIAGONAL_COST - 2 * STRAIGHT_COST) * Math.min(distX, distY);
+    }
+
+    /**
+     * Checks if a cell is on the map.
+     *
+     * @param x x coordinate of the cell.
+     * @param y y coordinate of the cell.
+     * @return True if the cell is on the map, else False.
+     */
+    private boolean isInside(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+}
@@ -0,0 +1,174 @@
+import javafx.geometry.Pos;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+
+/**
+ * This class shows live timings of the game on top of the screen and keeps a rolling histogram of each one,
+ * so a slow turn can be traced to the part of the game that took the time.
+ */
+public class PerformanceOverlay {
+    public static final String FRAME = "frame";
+    public static final String DRAW_MAP = "drawMap";
+    public static final String DRAW_ITEMS = "drawItems";
+    public static final String DRAW_ENEMIES = "drawEnemies";
+    public static final String ENEMY_AI = "enemyAI";
+    public static final String INPUT_LATENCY = "inputToTurn"; //From a key press to the turn it plays.
+    private static final int SAMPLES = 600;
+    private static final long REFRESH_INTERVAL = 250_000_000L; //in nanoseconds.
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+    private LinkedHashMap<String, RollingHistogram> timings;
+    private Text text;
+    private long lastRefresh = 0;
+    private int cellsDrawn = 0;
+    private int enemyNodes = 0;
+    private double pathCacheHitRate = 0;
+    private int queuedMoves = 0;
+    private int droppedMoves = 0;
+
+    /**
+     * Creates a hidden overlay.
+     */
+    public PerformanceOverlay() {
+        timings = new LinkedHashMap<>();
+        for (String name : new String[]{FRAME, DRAW_MAP, DRAW_ITEMS, DRAW_ENEMIES, ENEMY_AI, INPUT_LATENCY}) {
+            timings.put(name, new RollingHistogram(SAMPLES));
+        }
+    }
+
+    /**
+     * Get the node that displays the overlay. It is only created when asked for, so the timings can be
+     * recorded when the game runs without a window.
+     *
+     * @return The overlay's node.
+     */
+    public Text getNode() {
+        if (text == null) {
+            text = new Text();
+            text.setFill(Color.LIME);
+            text.setFont(Font.font("Monospaced", 12));
+            text.setMouseTransparent(true);
+            text.setVisible(false);
+            StackPane.setAlignment(text, Pos.TOP_LEFT);
+        }
+        return text;
+    }
+
+    /**
+     * Shows the overlay if it is hidden, hides it otherwise.
+     */
+    public void toggle() {
+        getNode().setVisible(!text.isVisible());
+        lastRefresh = 0;
+    }
+
+    /**
+     * Records a timing.
+     *
+     * @param name  The name of the timing.
+     * @param nanos The measured time in nanoseconds.
+     */
+    public void record(String name, long nanos) {
+        timings.get(name).add(nanos);
+    }
+
+    /**
+     * Set the number of cells painted by the last draw of the map.
+     *
+     * @param cellsDrawn The number of cells.
+     */
+    public void setCellsDrawn(int cellsDrawn) {
+        this.cellsDrawn = cellsDrawn;
+    }
+
+    /**
+     * Set the number of nodes holding the enemy sprites.
+     *
+     * @param enemyNodes The number of nodes.
+     */
+    public void setEnemyNodes(int enemyNodes) {
+        this.enemyNodes = enemyNodes;
+    }
+
+    /**
+     * Set the share of the path searches answered by the path cache of the map.
+     *
+     * @param pathCacheHitRate The hit rate, between 0 and 1.
+     */
+    public void setPathCacheHitRate(double pathCacheHitRate) {
+        this.pathCacheHitRate = pathCacheHitRate;
+    }
+
+    /**
+     * Set the state of the input queue of the game.
+     *
+     * @param queuedMoves  The number of moves waiting to be played.
+     * @param droppedMoves The number of moves dropped because the queue was full.
+     */
+    public void setInputQueue(int queuedMoves, int droppedMoves) {
+        this.queuedMoves = queuedMoves;
+        this.droppedMoves = droppedMoves;
+    }
+
+    /**
+     * Updates the text of the overlay, a few times per second while it is shown.
+     *
+     * @param now The timestamp of the current pulse in nanoseconds.
+     */
+    public void refresh(long now) {
+        if (text == null || !text.isVisible() || now - lastRefresh < REFRESH_INTERVAL) {
+            return;
+        }
+        lastRefresh = now;
+        text.setText(createReport());
+    }
+
+    /**
+     * Get the histogram of a timing.
+     *
+     * @param name The name of the timing.
+     * @return The histogram.
+     */
+    public RollingHistogram getTiming(String name) {
+        return timings.get(name);
+    }
+
+    /**
+     * Writes the current report to the performance log.
+     */
+    public void dump() {
+        FileWriter.writePerformanceLog(LocalDateTime.now() + "\n" + createReport() + "\n");
+    }
+
+    /**
+     * Builds the report of every timing and counter.
+     *
+     * @return The report.
+     */
+    private String createReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-12s %8s %8s %8s %8s%n", "(ms)", "last", "p50", "p99", "max"));
+
+        for (String name : timings.keySet()) {
+            RollingHistogram histogram = timings.get(name);
+            report.append(String.format("%-12s %8.2f %8.2f %8.2f %8.2f%n", name,
+                    histogram.getLast() / NANOS_PER_MILLI, histogram.getPercentile(50) / NANOS_PER_MILLI,
+                    histogram.getPercentile(99) / NANOS_PER_MILLI, histogram.getMax() / NANOS_PER_MILLI));
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsed = (runtime.totalMemory() - runtime.freeMemory()) / BYTES_PER_MEGABYTE;
+        report.append("cells drawn  ").append(cellsDrawn).append("\n");
+        report.append("enemy nodes  ").append(enemyNodes).append("\n");
+        report.append(String.format("path cache   %.1f%% hits%n", pathCacheHitRate * 100));
+        report.append("input queue  ").append(queuedMoves).append(" queued, ").append(droppedMoves)
+                .append(" dropped\n");
+        report.append("heap used    ").append(heapUsed).append(" MB");
+        return report.toString();
+    }
+}
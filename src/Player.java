@@ -1,6 +1,9 @@
 import javafx.geometry.Point2D;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 
 /**
  * This Class models a player character.
@@ -12,6 +15,12 @@ import java.util.ArrayList;
 public class Player {
     private Point2D position;
     private ArrayList<Item> inventory;
+    //Counts of what the inventory holds, kept up to date by addItem and removeKey so doors and hazards do not
+    //go through the inventory.
+    private int tokenCount;
+    private HashMap<String, Integer> keyCounts; //Number of keys of every colour.
+    private boolean hasFireBoots;
+    private boolean hasWaterBoots;
 
     /**
      * Constructor.
@@ -19,6 +28,7 @@ public class Player {
     public Player() {
         position = new Point2D(0, 0);
         inventory = new ArrayList<Item>();
+        keyCounts = new HashMap<>();
     }
 
     /**
@@ -41,12 +51,90 @@ public class Player {
     }
 
     /**
-     * Retrieve players inventory.
+     * Retrieve players inventory, items are added with addItem.
      *
-     * @return players inventory.
+     * @return players inventory, in the order the items were picked up.
      */
-    public ArrayList<Item> getInventory() {
-        return inventory;
+    public List<Item> getInventory() {
+        return Collections.unmodifiableList(inventory);
+    }
+
+    /**
+     * Puts an item in the players inventory.
+     *
+     * @param item item to be added.
+     */
+    public void addItem(Item item) {
+        inventory.add(item);
+        if (item.getClass() == Token.class) {
+            tokenCount++;
+        } else if (item.getClass() == Key.class) {
+            keyCounts.merge(((Key) item).getColour(), 1, Integer::sum);
+        } else if (item.getClass() == FireBoots.class) {
+            hasFireBoots = true;
+        } else if (item.getClass() == WaterBoots.class) {
+            hasWaterBoots = true;
+        }
+    }
+
+    /**
+     * Takes a key of a colour out of the players inventory, e.g. when it opens a door.
+     *
+     * @param colour colour of the key.
+     * @return True if the player had a key of that colour, else False.
+     */
+    public boolean removeKey(String colour) {
+        if (getKeyCount(colour) == 0) {
+            return false;
+        }
+        //The last key of the colour goes, as the doors always did. Taking it out of the list shifts the items
+        //after it, so looking for it from the end of the inventory costs no more than the removal itself.
+        for (int i = inventory.size() - 1; i >= 0; i--) {
+            Item item = inventory.get(i);
+            if (item.getClass() == Key.class && ((Key) item).getColour().equals(colour)) {
+                inventory.remove(i);
+                break;
+            }
+        }
+        keyCounts.merge(colour, -1, Integer::sum);
+        return true;
+    }
+
+    /**
+     * Retrieve the number of tokens the player holds.
+     *
+     * @return number of tokens.
+     */
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * Retrieve the number of keys of a colour the player holds.
+     *
+     * @param colour colour of the keys.
+     * @return number of keys.
+     */
+    public int getKeyCount(String colour) {
+        return keyCounts.getOrDefault(colour, 0);
+    }
+
+    /**
+     * Checks if the player holds fire boots.
+     *
+     * @return True if the player has fire boots, else False.
+     */
+    public boolean hasFireBoots() {
+        return hasFireBoots;
+    }
+
+    /**
+     * Checks if the player holds water boots.
+     *
+     * @return True if the player has water boots, else False.
+     */
+    public boolean hasWaterBoots() {
+        return hasWaterBoots;
     }
 
     /**
@@ -0,0 +1,460 @@
+import javafx.geometry.Point2D;
+import javafx.scene.image.Image;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+
+/**
+ * This class is a render sink that draws nothing. It counts the draw calls and keeps the position every sprite
+ * would have on screen, so whole levels can be played without a window, as fast as the game logic allows.
+ * <p>
+ * Animations do not run on their own. A camera move is finished by calling {@link #finishAnimations()}, which
+ * plays the part of the frame loop, and enemy sprites jump straight to the end of their move.
+ */
+public class RecordingRenderSink implements RenderSink {
+    private IdentityHashMap<Enemy, Point2D> spritePositions;
+    private HashSet<Enemy> placedThisPass;
+    private Runnable pendingCamera;
+    private Point2D camera;
+    private int cellsX;
+    private int cellsY;
+    private int mapDraws;
+    private int cellsDrawn;
+    private int itemDraws;
+    private int enemyPlacements;
+    private int enemyMoves;
+    private int cameraMoves;
+    private int invalidatedCells;
+    private int minimapCells;
+    private boolean isPlayerVisible;
+    private boolean isPlayerReversed;
+    private boolean isPaused;
+    private boolean hasShownDeath;
+    private boolean hasShownGoal;
+
+    /**
+     * Creates an empty sink.
+     */
+    public RecordingRenderSink() {
+        spritePositions = new IdentityHashMap<>();
+        placedThisPass = new HashSet<>();
+        camera = Point2D.ZERO;
+        isPlayerVisible = true;
+    }
+
+    /**
+     * Remembers the size of the view.
+     *
+     * @param renderer the renderer that draws on the sink.
+     * @param cellsX   number of cells rendered horizontally.
+     * @param cellsY   number of cells rendered vertically.
+     */
+    @Override
+    public void attach(MapRenderer renderer, int cellsX, int cellsY) {
+        this.cellsX = cellsX;
+        this.cellsY = cellsY;
+    }
+
+    /**
+     * Counts a draw of the map, as if every cell was painted.
+     *
+     * @param map     the cells of the map.
+     * @param originX x coordinate of the cell drawn at the top left.
+     * @param originY y coordinate of the cell drawn at the top left.
+     * @return the number of cells in the view.
+     */
+    @Override
+    public int drawMap(Cell[][] map, int originX, int originY) {
+        mapDraws++;
+        cellsDrawn += cellsX * cellsY;
+        return cellsX * cellsY;
+    }
+
+    /**
+     * Counts a changed cell.
+     *
+     * @param map the cells of the map.
+     * @param x   coordinate of the cell on the map.
+     * @param y   coordinate of the cell on the map.
+     */
+    @Override
+    public void invalidateCell(Cell[][] map, int x, int y) {
+        invalidatedCells++;
+    }
+
+    /**
+     * Counts a changed cell of the minimap.
+     *
+     * @param x coordinate of the cell on the map.
+     * @param y coordinate of the cell on the map.
+     */
+    @Override
+    public void invalidateMinimap(int x, int y) {
+        minimapCells++;
+    }
+
+    /**
+     * Counts the changed cells of the minimap, the two cells of every enemy that moved.
+     *
+     * @param turn the turn.
+     */
+    @Override
+    public void invalidateEnemyMoves(TurnResult turn) {
+        for (int i = 0; i < turn.getEnemyCount(); i++) {
+            Point2D move = turn.getEnemyMove(i);
+            if (move.getX() != 0 || move.getY() != 0) {
+                minimapCells += 2;
+            }
+        }
+    }
+
+    /**
+     * Does nothing, the minimap is not drawn.
+     */
+    @Override
+    public void refreshMinimap() {
+    }
+
+    /**
+     * Does nothing, the minimap is not drawn.
+     */
+    @Override
+    public void toggleMinimap() {
+    }
+
+    /**
+     * Counts a draw of an item.
+     *
+     * @param item the item.
+     * @param x    coordinate of the item on screen.
+     * @param y    coordinate of the item on screen.
+     */
+    @Override
+    public void drawItem(Item item, double x, double y) {
+        itemDraws++;
+    }
+
+    /**
+     * Starts placing the enemies.
+     */
+    @Override
+    public void beginEnemyPass() {
+        placedThisPass.clear();
+    }
+
+    /**
+     * Records the position of an enemy's sprite.
+     *
+     * @param enemy the enemy.
+     * @param x     coordinate of the sprite on screen.
+     * @param y     coordinate of the sprite on screen.
+     */
+    @Override
+    public void placeEnemy(Enemy enemy, double x, double y) {
+        spritePositions.put(enemy, new Point2D(x, y));
+        placedThisPass.add(enemy);
+        enemyPlacements++;
+    }
+
+    /**
+     * Forgets the sprites of the enemies that were not placed during the pass.
+     */
+    @Override
+    public void endEnemyPass() {
+        spritePositions.keySet().retainAll(placedThisPass);
+    }
+
+    /**
+     * Moves the sprite of an enemy to the end of its move.
+     *
+     * @param enemy   the enemy.
+     * @param byX     horizontal distance of the move.
+     * @param byY     vertical distance of the move.
+     * @param seconds duration of the animation.
+     */
+    @Override
+    public void moveEnemy(Enemy enemy, double byX, double byY, double seconds) {
+        Point2D position = spritePositions.get(enemy);
+        if (position != null) {
+            spritePositions.put(enemy, position.add(byX, byY));
+            enemyMoves++;
+        }
+    }
+
+    /**
+     * Get the number of enemies that have a sprite.
+     *
+     * @return the number of sprites.
+     */
+    @Override
+    public int getEnemySpriteCount() {
+        return spritePositions.size();
+    }
+
+    /**
+     * Records a camera move, it is finished by {@link #finishAnimations()}.
+     *
+     * @param toX        horizontal offset of the view at the end of the move.
+     * @param toY        vertical offset of the view at the end of the move.
+     * @param seconds    duration of the move.
+     * @param onFinished called once the move is over.
+     */
+    @Override
+    public void moveCamera(double toX, double toY, double seconds, Runnable onFinished) {
+        camera = new Point2D(toX, toY);
+        pendingCamera = onFinished;
+        cameraMoves++;
+    }
+
+    /**
+     * Puts the camera back to its resting position.
+     */
+    @Override
+    public void resetCamera() {
+        camera = Point2D.ZERO;
+    }
+
+    /**
+     * Finishes the camera moves, including the ones started while finishing, e.g. by a teleport.
+     *
+     * @return the number of finished moves.
+     */
+    public int finishAnimations() {
+        int finished = 0;
+        while (pendingCamera != null) {
+            Runnable onFinished = pendingCamera;
+            pendingCamera = null;
+            onFinished.run();
+            finished++;
+        }
+        return finished;
+    }
+
+    /**
+     * Check if a camera move is waiting to be finished.
+     *
+     * @return true if a move is pending.
+     */
+    public boolean isAnimating() {
+        return pendingCamera != null;
+    }
+
+    /**
+     * Does nothing, the player's sprite is not recorded.
+     *
+     * @param sprite current sprite.
+     */
+    @Override
+    public void setPlayerSprite(Image sprite) {
+    }
+
+    /**
+     * Does nothing, the player's animation is not recorded.
+     *
+     * @param animation the animation.
+     */
+    @Override
+    public void setPlayerAnimation(SpriteAnimation animation) {
+    }
+
+    /**
+     * Records the direction the player faces.
+     *
+     * @param isReversed true if the sprite faces right.
+     */
+    @Override
+    public void setPlayerReversed(boolean isReversed) {
+        isPlayerReversed = isReversed;
+    }
+
+    /**
+     * Records if the player is shown.
+     *
+     * @param isVisible true to show the player.
+     */
+    @Override
+    public void setPlayerVisible(boolean isVisible) {
+        isPlayerVisible = isVisible;
+    }
+
+    /**
+     * Records that the death sequence was shown.
+     */
+    @Override
+    public void showDeath() {
+        hasShownDeath = true;
+    }
+
+    /**
+     * Records that the level completed sequence was shown.
+     */
+    @Override
+    public void showGoal() {
+        hasShownGoal = true;
+    }
+
+    /**
+     * Records if the pause menu is shown.
+     *
+     * @param isPaused true to show the menu.
+     */
+    @Override
+    public void showPause(boolean isPaused) {
+        this.isPaused = isPaused;
+    }
+
+    /**
+     * Drops the pending camera move.
+     */
+    @Override
+    public void stop() {
+        pendingCamera = null;
+    }
+
+    /**
+     * Get the position the sprite of an enemy has on screen.
+     *
+     * @param enemy the enemy.
+     * @return the position, or null if the enemy is not on screen.
+     */
+    public Point2D getSpritePosition(Enemy enemy) {
+        return spritePositions.get(enemy);
+    }
+
+    /**
+     * Get the offset of the view.
+     *
+     * @return the offset of the camera.
+     */
+    public Point2D getCamera() {
+        return camera;
+    }
+
+    /**
+     * Get the number of times the map was drawn.
+     *
+     * @return the number of map draws.
+     */
+    public int getMapDraws() {
+        return mapDraws;
+    }
+
+    /**
+     * Get the number of cells drawn since the sink was created.
+     *
+     * @return the number of cells.
+     */
+    public int getCellsDrawn() {
+        return cellsDrawn;
+    }
+
+    /**
+     * Get the number of items drawn since the sink was created.
+     *
+     * @return the number of item draws.
+     */
+    public int getItemDraws() {
+        return itemDraws;
+    }
+
+    /**
+     * Get the number of times an enemy sprite was placed.
+     *
+     * @return the number of placements.
+     */
+    public int getEnemyPlacements() {
+        return enemyPlacements;
+    }
+
+    /**
+     * Get the number of enemy sprites that were animated.
+     *
+     * @return the number of enemy moves.
+     */
+    public int getEnemyMoves() {
+        return enemyMoves;
+    }
+
+    /**
+     * Get the number of camera moves, one for every step of the player.
+     *
+     * @return the number of camera moves.
+     */
+    public int getCameraMoves() {
+        return cameraMoves;
+    }
+
+    /**
+     * Get the number of cells that were marked as changed.
+     *
+     * @return the number of invalidated cells.
+     */
+    public int getInvalidatedCells() {
+        return invalidatedCells;
+    }
+
+    /**
+     * Get the number of minimap cells that were marked as changed.
+     *
+     * @return the number of minimap cells.
+     */
+    public int getMinimapCells() {
+        return minimapCells;
+    }
+
+    /**
+     * Check if the player is shown.
+     *
+     * @return isPlayerVisible.
+     */
+    public boolean isPlayerVisible() {
+        return isPlayerVisible;
+    }
+
+    /**
+     * Check if the player's sprite is mirrored.
+     *
+     * @return isPlayerReversed.
+     */
+    public boolean isPlayerReversed() {
+        return isPlayerReversed;
+    }
+
+    /**
+     * Check if the pause menu is shown.
+     *
+     * @return isPaused.
+     */
+    public boolean isPaused() {
+        return isPaused;
+    }
+
+    /**
+     * Check if the death sequence was shown.
+     *
+     * @return hasShownDeath.
+     */
+    public boolean hasShownDeath() {
+        return hasShownDeath;
+    }
+
+    /**
+     * Check if the level completed sequence was shown.
+     *
+     * @return hasShownGoal.
+     */
+    public boolean hasShownGoal() {
+        return hasShownGoal;
+    }
+
+    /**
+     * Converts the counters of the sink to a String.
+     *
+     * @return String instance.
+     */
+    @Override
+    public String toString() {
+        return "Map draws " + mapDraws + " cells " + cellsDrawn + " items " + itemDraws + " enemy placements "
+                + enemyPlacements + " enemy moves " + enemyMoves + " camera moves " + cameraMoves;
+    }
+}
@@ -0,0 +1,173 @@
+import javafx.scene.image.Image;
+
+/**
+ * This interface is the output of the map renderer. The renderer decides what is on screen and where,
+ * the sink puts it on a screen, or only records it when the game runs without a window.
+ * <p>
+ * Coordinates are in pixels, relative to the top left corner of the rendered cells.
+ */
+public interface RenderSink {
+
+    /**
+     * Called once by the renderer before anything is drawn.
+     *
+     * @param renderer the renderer that draws on the sink.
+     * @param cellsX   number of cells rendered horizontally.
+     * @param cellsY   number of cells rendered vertically.
+     */
+    void attach(MapRenderer renderer, int cellsX, int cellsY);
+
+    /**
+     * Draws the cells of the map, removing the items drawn before.
+     *
+     * @param map     the cells of the map.
+     * @param originX x coordinate of the cell drawn at the top left.
+     * @param originY y coordinate of the cell drawn at the top left.
+     * @return the number of cells that had to be painted.
+     */
+    int drawMap(Cell[][] map, int originX, int originY);
+
+    /**
+     * Marks a cell of the map as changed, so it is drawn again even if it did not scroll into view.
+     *
+     * @param map the cells of the map.
+     * @param x   coordinate of the cell on the map.
+     * @param y   coordinate of the cell on the map.
+     */
+    void invalidateCell(Cell[][] map, int x, int y);
+
+    /**
+     * Marks a cell of the minimap as changed, because the cell itself or what stands on it changed.
+     *
+     * @param x coordinate of the cell on the map.
+     * @param y coordinate of the cell on the map.
+     */
+    void invalidateMinimap(int x, int y);
+
+    /**
+     * Marks the cells of the minimap the enemies left and entered during a turn as changed.
+     *
+     * @param turn the turn, holding the move of every enemy of the map.
+     */
+    void invalidateEnemyMoves(TurnResult turn);
+
+    /**
+     * Shows the cells of the minimap that changed since the last refresh.
+     */
+    void refreshMinimap();
+
+    /**
+     * Shows the minimap if it is hidden, hides it otherwise.
+     */
+    void toggleMinimap();
+
+    /**
+     * Draws an item on top of the map.
+     *
+     * @param item the item.
+     * @param x    coordinate of the item on screen.
+     * @param y    coordinate of the item on screen.
+     */
+    void drawItem(Item item, double x, double y);
+
+    /**
+     * Starts placing the enemies. Enemies that are not placed before the pass ends are removed from the screen.
+     */
+    void beginEnemyPass();
+
+    /**
+     * Places the sprite of an enemy, stopping its animation.
+     *
+     * @param enemy the enemy.
+     * @param x     coordinate of the sprite on screen.
+     * @param y     coordinate of the sprite on screen.
+     */
+    void placeEnemy(Enemy enemy, double x, double y);
+
+    /**
+     * Ends placing the enemies.
+     */
+    void endEnemyPass();
+
+    /**
+     * Animates the sprite of an enemy. Nothing happens if the enemy is not on screen.
+     *
+     * @param enemy   the enemy.
+     * @param byX     horizontal distance of the move.
+     * @param byY     vertical distance of the move.
+     * @param seconds duration of the animation.
+     */
+    void moveEnemy(Enemy enemy, double byX, double byY, double seconds);
+
+    /**
+     * Get the number of sprites created for the enemies.
+     *
+     * @return the number of sprites.
+     */
+    int getEnemySpriteCount();
+
+    /**
+     * Moves the view, the player stays in the middle of the screen.
+     *
+     * @param toX        horizontal offset of the view at the end of the move.
+     * @param toY        vertical offset of the view at the end of the move.
+     * @param seconds    duration of the move.
+     * @param onFinished called once the move is over.
+     */
+    void moveCamera(double toX, double toY, double seconds, Runnable onFinished);
+
+    /**
+     * Puts the view back to its resting position.
+     */
+    void resetCamera();
+
+    /**
+     * Set the current sprite for the player.
+     *
+     * @param sprite current sprite.
+     */
+    void setPlayerSprite(Image sprite);
+
+    /**
+     * Set the animation of the player's sprite.
+     *
+     * @param animation the animation.
+     */
+    void setPlayerAnimation(SpriteAnimation animation);
+
+    /**
+     * Mirrors the player's sprite or puts it back.
+     *
+     * @param isReversed true if the sprite faces right.
+     */
+    void setPlayerReversed(boolean isReversed);
+
+    /**
+     * Shows or hides the player.
+     *
+     * @param isVisible true to show the player.
+     */
+    void setPlayerVisible(boolean isVisible);
+
+    /**
+     * Shows the death sequence.
+     */
+    void showDeath();
+
+    /**
+     * Shows the level completed sequence.
+     */
+    void showGoal();
+
+    /**
+     * Shows or hides the pause menu.
+     *
+     * @param isPaused true to show the menu.
+     */
+    void showPause(boolean isPaused);
+
+    /**
+     * Stops every animation, used when leaving the level.
+     */
+    void stop();
+}
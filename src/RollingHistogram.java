@@ -0,0 +1,85 @@
+import java.util.Arrays;
+
+/**
+ * This class keeps the last samples of a measurement and reports their distribution.
+ * Once it is full, every new sample replaces the oldest one.
+ */
+public class RollingHistogram {
+    private long[] samples;
+    private int count;
+    private int next;
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param capacity number of samples kept.
+     */
+    public RollingHistogram(int capacity) {
+        samples = new long[capacity];
+        count = 0;
+        next = 0;
+    }
+
+    /**
+     * Adds a sample, replacing the oldest one if the histogram is full.
+     *
+     * @param value the sample.
+     */
+    public void add(long value) {
+        samples[next] = value;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    /**
+     * Retrieves the given percentile of the kept samples, using the nearest rank.
+     *
+     * @param percentile percentile between 0 and 100.
+     * @return the value of the percentile, or 0 if there are no samples.
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.max(0, Math.min(count - 1, rank - 1))];
+    }
+
+    /**
+     * Retrieves the largest kept sample.
+     *
+     * @return the largest sample, or 0 if there are no samples.
+     */
+    public long getMax() {
+        long max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Retrieves the latest sample.
+     *
+     * @return the latest sample, or 0 if there are no samples.
+     */
+    public long getLast() {
+        if (count == 0) {
+            return 0;
+        }
+        return samples[(next - 1 + samples.length) % samples.length];
+    }
+
+    /**
+     * Retrieves the number of kept samples.
+     *
+     * @return number of samples.
+     */
+    public int getCount() {
+        return count;
+    }
+}
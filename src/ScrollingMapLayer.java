@@ -0,0 +1,263 @@
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayList;
+
+/**
+ * This class keeps the visible cells of the map in a ring buffer, so that scrolling only has to paint the
+ * row or column of cells that came into view.
+ * <p>
+ * The world cell (x, y) is always stored in slot (x mod width, y mod height) of the buffer. Moving the view
+ * only moves the origin of the buffer, and four image views show the buffer unrolled around that origin.
+ * <p>
+ * The cells are not painted one by one from their images, they are copied from the pre-rendered chunks of a chunk
+ * cache, one block of pixels for every part of a strip that falls in the same chunk.
+ */
+public class ScrollingMapLayer {
+    private final int cellsX;
+    private final int cellsY;
+    private final int cellSide;
+    private WritableImage buffer;
+    private PixelWriter writer;
+    private ImageView[] quadrants;
+    private Pane layer;
+    private MapChunkCache chunkCache; //Holds the pre-rendered cells the buffer is filled from.
+    //The world coordinates of the top left cell currently held by the buffer.
+    private int originX;
+    private int originY;
+    private boolean isValid = false;
+    private ArrayList<int[]> dirtyCells;
+    private int cellsPainted;
+
+    /**
+     * Creates the scrolling layer.
+     *
+     * @param cellsX     number of cells held horizontally.
+     * @param cellsY     number of cells held vertically.
+     * @param cellSide   size of a cell in pixels.
+     * @param chunkCache the chunks the cells are copied from.
+     */
+    public ScrollingMapLayer(int cellsX, int cellsY, int cellSide, MapChunkCache chunkCache) {
+        this.cellsX = cellsX;
+        this.cellsY = cellsY;
+        this.cellSide = cellSide;
+        buffer = new WritableImage(cellsX * cellSide, cellsY * cellSide);
+        writer = buffer.getPixelWriter();
+        this.chunkCache = chunkCache;
+        dirtyCells = new ArrayList<>();
+
+        quadrants = new ImageView[4];
+        for (int i = 0; i < quadrants.length; i++) {
+            quadrants[i] = new ImageView(buffer);
+        }
+        layer = new Pane(quadrants);
+    }
+
+    /**
+     * Get the node that displays the layer.
+     *
+     * @return The layer's node.
+     */
+    public Pane getNode() {
+        return layer;
+    }
+
+    /**
+     * Brings the buffer up to date for a view whose top left cell is at the given world coordinates.
+     * Only the cells that scrolled into view and the cells that were invalidated are painted.
+     *
+     * @param map         The cells of the map.
+     * @param outOfBounds The image used for the cells outside the map.
+     * @param newOriginX  The x coordinate of the top left cell of the view.
+     * @param newOriginY  The y coordinate of the top left cell of the view.
+     */
+    public void update(Cell[][] map, Image outOfBounds, int newOriginX, int newOriginY) {
+        int dx = newOriginX - originX;
+        int dy = newOriginY - originY;
+
+        if (!isValid || Math.abs(dx) >= cellsX || Math.abs(dy) >= cellsY) {
+            originX = newOriginX;
+            originY = newOriginY;
+            paintArea(map, outOfBounds, originX, originY, cellsX, cellsY);
+            isValid = true;
+        } else {
+            int oldOriginX = originX;
+            int oldOriginY = originY;
+            originX = newOriginX;
+            originY = newOriginY;
+
+            //Columns that scrolled into view.
+            if (dx > 0) {
+                paintArea(map, outOfBounds, oldOriginX + cellsX, originY, dx, cellsY);
+            } else if (dx < 0) {
+                paintArea(map, outOfBounds, originX, originY, -dx, cellsY);
+            }
+            //Rows that scrolled into view.
+            if (dy > 0) {
+                paintArea(map, outOfBounds, originX, oldOriginY + cellsY, cellsX, dy);
+            } else if (dy < 0) {
+                paintArea(map, outOfBounds, originX, originY, cellsX, -dy);
+            }
+        }
+
+        for (int[] cell : dirtyCells) {
+            if (isInView(cell[0], cell[1])) {
+                paintCell(map, outOfBounds, cell[0], cell[1]);
+            }
+        }
+        dirtyCells.clear();
+        placeQuadrants();
+    }
+
+    /**
+     * Marks a cell as changed, it will be painted again on the next update.
+     *
+     * @param x The x coordinate of the cell on the map.
+     * @param y The y coordinate of the cell on the map.
+     */
+    public void invalidate(int x, int y) {
+        dirtyCells.add(new int[]{x, y});
+    }
+
+    /**
+     * Marks the whole buffer as changed, it will be painted from scratch on the next update.
+     */
+    public void invalidateAll() {
+        isValid = false;
+        dirtyCells.clear();
+    }
+
+    /**
+     * Get the number of cells painted since the layer was created.
+     *
+     * @return The number of painted cells.
+     */
+    public int getCellsPainted() {
+        return cellsPainted;
+    }
+
+    /**
+     * Checks if a cell is currently held by the buffer.
+     *
+     * @param x The x coordinate of the cell on the map.
+     * @param y The y coordinate of the cell on the map.
+     * @return True if the cell is in view, false otherwise.
+     */
+    private boolean isInView(int x, int y) {
+        return x >= originX && x < originX + cellsX && y >= originY && y < originY + cellsY;
+    }
+
+    /**
+     * Paints a rectangle of cells into the buffer. The rectangle is split where it crosses the border of a chunk
+     * or wraps around the buffer, and every part is copied at once.
+     *
+     * @param map         The cells of the map.
+     * @param outOfBounds The image used for the cells outside the map.
+     * @param startX      The x coordinate of the first cell on the map.
+     * @param startY      The y coordinate of the first cell on the map.
+     * @param width       The number of cells painted horizontally.
+     * @param height      The number of cells painted vertically.
+     */
+    private void paintArea(Cell[][] map, Image outOfBounds, int startX, int startY, int width, int height) {
+        int chunkCells = chunkCache.getChunkCells();
+        int endX = startX + width;
+        int endY = startY + height;
+        int nextY;
+        int nextX;
+
+        for (int y = startY; y < endY; y = nextY) {
+            nextY = Math.min(endY, Math.min(nextMultiple(y, chunkCells), nextMultiple(y, cellsY)));
+            for (int x = startX; x < endX; x = nextX) {
+                nextX = Math.min(endX, Math.min(nextMultiple(x, chunkCells), nextMultiple(x, cellsX)));
+                copyFromChunk(map, outOfBounds, x, y, nextX - x, nextY - y);
+            }
+        }
+    }
+
+    /**
+     * Paints a single cell into its slot of the buffer.
+     *
+     * @param map         The cells of the map.
+     * @param outOfBounds The image used for the cells outside the map.
+     * @param x           The x coordinate of the cell on the map.
+     * @param y           The y coordinate of the cell on the map.
+     */
+    private void paintCell(Cell[][] map, Image outOfBounds, int x, int y) {
+        copyFromChunk(map, outOfBounds, x, y, 1, 1);
+    }
+
+    /**
+     * Copies a rectangle of cells from the chunk holding them into their slots of the buffer. The rectangle must
+     * not cross the border of a chunk nor wrap around the buffer.
+     *
+     * @param map         The cells of the map.
+     * @param outOfBounds The image used for the cells outside the map.
+     * @param startX      The x coordinate of the first cell on the map.
+     * @param startY      The y coordinate of the first cell on the map.
+     * @param width       The number of cells copied horizontally.
+     * @param height      The number of cells copied vertically.
+     */
+    private void copyFromChunk(Cell[][] map, Image outOfBounds, int startX, int startY, int width, int height) {
+        int chunkCells = chunkCache.getChunkCells();
+        WritableImage chunk = chunkCache.getChunk(map, outOfBounds, Math.floorDiv(startX, chunkCells),
+                Math.floorDiv(startY, chunkCells));
+
+        writer.setPixels(Math.floorMod(startX, cellsX) * cellSide, Math.floorMod(startY, cellsY) * cellSide,
+                width * cellSide, height * cellSide, chunk.getPixelReader(),
+                Math.floorMod(startX, chunkCells) * cellSide, Math.floorMod(startY, chunkCells) * cellSide);
+        cellsPainted += width * height;
+    }
+
+    /**
+     * Get the smallest multiple of a step that is larger than a coordinate.
+     *
+     * @param coordinate The coordinate.
+     * @param step       The step.
+     * @return The multiple.
+     */
+    private static int nextMultiple(int coordinate, int step) {
+        return (Math.floorDiv(coordinate, step) + 1) * step;
+    }
+
+    /**
+     * Positions the four views of the buffer so that it is shown unrolled around the current origin.
+     */
+    private void placeQuadrants() {
+        int splitX = Math.floorMod(originX, cellsX);
+        int splitY = Math.floorMod(originY, cellsY);
+        int rightWidth = cellsX - splitX;
+        int bottomHeight = cellsY - splitY;
+
+        placeQuadrant(quadrants[0], splitX, splitY, rightWidth, bottomHeight, 0, 0);
+        placeQuadrant(quadrants[1], 0, splitY, splitX, bottomHeight, rightWidth, 0);
+        placeQuadrant(quadrants[2], splitX, 0, rightWidth, splitY, 0, bottomHeight);
+        placeQuadrant(quadrants[3], 0, 0, splitX, splitY, rightWidth, bottomHeight);
+    }
+
+    /**
+     * Shows a part of the buffer at the given position of the layer.
+     *
+     * @param view    The view to be placed.
+     * @param sourceX The x slot the part starts at.
+     * @param sourceY The y slot the part starts at.
+     * @param width   The width of the part in cells.
+     * @param height  The height of the part in cells.
+     * @param destX   The x cell of the layer the part is shown at.
+     * @param destY   The y cell of the layer the part is shown at.
+     */
+    private void placeQuadrant(ImageView view, int sourceX, int sourceY, int width, int height, int destX, int destY) {
+        //An empty viewport would make the view show the whole image, so hide it instead.
+        if (width == 0 || height == 0) {
+            view.setVisible(false);
+            return;
+        }
+        view.setVisible(true);
+        view.setViewport(new Rectangle2D(sourceX * cellSide, sourceY * cellSide, width * cellSide, height * cellSide));
+        view.setLayoutX(destX * cellSide);
+        view.setLayoutY(destY * cellSide);
+    }
+}
@@ -1,34 +1,29 @@
 import javafx.geometry.Point2D;
 import javafx.scene.image.Image;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.util.ArrayList;
-import java.util.PriorityQueue;
-
 /**
  * Class used for enemy which targets the player in the best way possible.
  * <p>
- * Implementation of A* Algorithm for Shortest path.
- * Source: http://www.codebytes.in/2015/02/a-shortest-path-finding-algorithm.html.
- * Modified to suit our needs for smart Enemy AI.
+ * By default the next move is read from the flow field shared by every enemy of the map, so the path to the
+ * player is searched once per turn instead of once per enemy. The enemy can also run its own search with the
+ * pathfinding engine of the map, either A* or Jump Point Search, which expands far fewer cells in open rooms.
+ * On very large maps the hierarchical mode plans far away paths on the cluster graph of the map and only
+ * searches cell by cell near the enemy. The search mode is set for the whole map and can be changed for a
+ * single enemy. The first steps found by the searches are kept in the path cache of the map, so enemies
+ * following each other or a player going back and forth do not search the same path again.
  *
  * @author Peter Hawkins
  */
 public class SmartTargetingEnemy extends Enemy {
+    public static final int FLOW_FIELD = 0;
+    public static final int A_STAR = 1;
+    public static final int JUMP_POINT = 2;
+    public static final int HIERARCHICAL = 3;
+    private static final int MAP_SEARCH_MODE = -1;
     private Point2D position;
-    private Cell[][] currentMapState = Map.getInstance().getCellArray();
     private String filePath = "assets/images/SmartTargetingEnemy.png";
     private Image artAsset;
-    private final int DIAGONAL_COST = 14;
-    private final int V_H_COST = 10;
-    private GridNode[][] grid = new GridNode[0][0];
-    private PriorityQueue<GridNode> open;
-    private boolean[][] closed;
-    private int startX;
-    private int startY;
-    private int goalX;
-    private int goalY;
+    private int searchMode = MAP_SEARCH_MODE;
 
     /**
      * Construct a new SmartTargetingEnemy().
@@ -37,151 +32,85 @@ public class SmartTargetingEnemy extends Enemy {
      */
     public SmartTargetingEnemy(Point2D position) {
         this.position = position;
-        try {
-            artAsset = new Image(new FileInputStream(filePath));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        artAsset = AssetRegistry.getInstance().getImage(filePath);
     }
 
     /**
      * Gets next move for the Smart Enemy.
      *
-     * @return either the next position based on A* Algorithm or Random valid position if no path.
+     * @return either the next position on a shortest path to the player or Random valid position if no path.
      */
     @Override
     public Point2D getNextMove() {
-        grid = new GridNode[Map.getInstance().getCellArray().length][Map.getInstance().getCellArray()[0].length];
-        closed = new boolean[Map.getInstance().getCellArray().length][Map.getInstance().getCellArray()[0].length];
-
-        open = new PriorityQueue<>((Object o1, Object o2) -> {
-            GridNode gridNode1 = (GridNode) o1;
-            GridNode gridNode2 = (GridNode) o2;
-            return Integer.compare(gridNode1.getFinalCost(), gridNode2.getFinalCost());
-        });
-
-        setStartGridNode((int) position.getY(), (int) position.getX());
-        setEndGridNode((int) Map.getInstance().getPlayer().getPosition().getY(), (int) Map.getInstance().getPlayer().getPosition().getX());
-
-        for (int i = 0; i < Map.getInstance().getCellArray().length; ++i) {
-            for (int j = 0; j < Map.getInstance().getCellArray()[0].length; ++j) {
-                grid[i][j] = new GridNode(i, j);
-                grid[i][j].setHeuristicCost(Math.abs(i - goalX) + Math.abs(j - goalY));
-            }
-        }
-
-        grid[startX][startY].setFinalCost(0);
-
-        for (int i = 0; i < Map.getInstance().getCellArray().length; i++) {
-            for (int j = 0; j < Map.getInstance().getCellArray()[0].length; j++) {
-                if (Map.getInstance().getCellArray()[i][j].getSymbol().equals("#")
-                        || Map.getInstance().getCellArray()[i][j].getSymbol().equals("D")
-                        || Map.getInstance().getCellArray()[i][j].getSymbol().equals("K")
-                        || Map.getInstance().getCellArray()[i][j].getSymbol().equals("F")
-                        || Map.getInstance().getCellArray()[i][j].getSymbol().equals("W")
-                        || Map.getInstance().getCellArray()[i][j].getSymbol().equals("T")
-                        || Map.getInstance().getCellArray()[i][j].getSymbol().equals("G")) {
-                    grid[i][j] = null;
-                }
-            }
-        }
-
-        aStarPathfinder();
-
-        if (closed[goalX][goalY]) {
-            //Trace back the path
-            ArrayList<Point2D> path = new ArrayList();
-            GridNode current = grid[goalX][goalY];
-            while (current.getParent() != null) {
-                path.add(new Point2D(current.getGridNodeX(), current.getGridNodeY()));
-                current = current.getParent();
-            }
-            double distX = path.get((path.size() - 1)).getX() - startX;
-            double distY = path.get((path.size() - 1)).getY() - startY;
-            return (new Point2D(distY, distX));
-        } else {
+        int mode = searchMode == MAP_SEARCH_MODE ? Map.getInstance().getSearchMode() : searchMode;
+        int next = findNextStep(mode, (int) position.getX(), (int) position.getY());
+        if (next == -1) {
             return alternateMove();
         }
+        int width = Map.getInstance().getWalkability().getWidth();
+        return new Point2D(next % width - (int) position.getX(), next / width - (int) position.getY());
     }
 
     /**
-     * Implementation of A* path finding algorithm.
+     * Sets the way this enemy searches its path to the player, instead of the one of the map. The cluster graph
+     * of the map is built here for the hierarchical mode.
+     *
+     * @param searchMode FLOW_FIELD, A_STAR, JUMP_POINT or HIERARCHICAL.
      */
-    public void aStarPathfinder() {
-        open.add(grid[startX][startY]);
-
-        GridNode currentNode;
-
-        while (true) {
-            currentNode = open.poll();
-            if (currentNode == null) {
-                break;
-            }
-            closed[currentNode.getGridNodeX()][currentNode.getGridNodeY()] = true;
-            if (currentNode.equals(grid[goalX][goalY])) {
-                return;
-            }
-
-            GridNode gridNode;
-            if (currentNode.getGridNodeX() - 1 >= 0) {
-                gridNode = grid[currentNode.getGridNodeX() - 1][currentNode.getGridNodeY()];
-                checkAndUpdateCost(currentNode, gridNode, currentNode.getFinalCost() + V_H_COST);
-
-                if (currentNode.getGridNodeY() - 1 >= 0) {
-                    gridNode = grid[currentNode.getGridNodeX() - 1][currentNode.getGridNodeY() - 1];
-                    checkAndUpdateCost(currentNode, gridNode, currentNode.getFinalCost() + DIAGONAL_COST);
-                }
-                if (currentNode.getGridNodeY() + 1 < grid[0].length) {
-                    gridNode = grid[currentNode.getGridNodeX() - 1][currentNode.getGridNodeY() + 1];
-                    checkAndUpdateCost(currentNode, gridNode, currentNode.getFinalCost() + DIAGONAL_COST);
-                }
-            }
-
-            if (currentNode.getGridNodeY() - 1 >= 0) {
-                gridNode = grid[currentNode.getGridNodeX()][currentNode.getGridNodeY() - 1];
-                checkAndUpdateCost(currentNode, gridNode, currentNode.getFinalCost() + V_H_COST);
-            }
-            if (currentNode.getGridNodeY() + 1 < grid[0].length) {
-                gridNode = grid[currentNode.getGridNodeX()][currentNode.getGridNodeY() + 1];
-                checkAndUpdateCost(currentNode, gridNode, currentNode.getFinalCost() + V_H_COST);
-            }
-            if (currentNode.getGridNodeX() + 1 < grid.length) {
-                gridNode = grid[currentNode.getGridNodeX() + 1][currentNode.getGridNodeY()];
-                checkAndUpdateCost(currentNode, gridNode, currentNode.getFinalCost() + V_H_COST);
-
-                if (currentNode.getGridNodeY() - 1 >= 0) {
-                    gridNode = grid[currentNode.getGridNodeX() + 1][currentNode.getGridNodeY() - 1];
-                    checkAndUpdateCost(currentNode, gridNode, currentNode.getFinalCost() + DIAGONAL_COST);
-                }
-                if (currentNode.getGridNodeY() + 1 < grid[0].length) {
-                    gridNode = grid[currentNode.getGridNodeX() + 1][currentNode.getGridNodeY() + 1];
-                    checkAndUpdateCost(currentNode, gridNode, currentNode.getFinalCost() + DIAGONAL_COST);
-                }
-            }
+    public void setSearchMode(int searchMode) {
+        this.searchMode = searchMode;
+        if (searchMode == HIERARCHICAL) {
+            Map.getInstance().getClusterGraph().build();
         }
     }
 
     /**
-     * Gets the costs of current node and next node search then updates the cost values.
+     * Finds the cell a smart enemy steps on to get closer to the player. The first steps found by A*, Jump Point
+     * Search and the cluster graph are read from the path cache of the map if an enemy already searched the same
+     * path since the cells last changed. The hierarchical mode runs A* if the player is close enough for it to be
+     * cheap.
      *
-     * @param current  node in the grid.
-     * @param gridNode next gridNode in the grid checked.
-     * @param cost     overall cost between these nodes.
+     * @param mode   FLOW_FIELD, A_STAR, JUMP_POINT or HIERARCHICAL.
+     * @param startX coordinate of the enemy.
+     * @param startY coordinate of the enemy.
+     * @return index of the cell, or -1 if there is no path.
      */
-    private void checkAndUpdateCost(GridNode current, GridNode gridNode, int cost) {
-        if (gridNode == null || closed[gridNode.getGridNodeX()][gridNode.getGridNodeY()]) {
-            return;
+    static int findNextStep(int mode, int startX, int startY) {
+        Map map = Map.getInstance();
+        if (mode == FLOW_FIELD) {
+            return map.getFlowField().getNextStep(startX, startY);
+        }
+
+        WalkabilityMap walkability = map.getWalkability();
+        Point2D player = map.getPlayer().getPosition();
+        int goalX = (int) player.getX();
+        int goalY = (int) player.getY();
+        if (mode == HIERARCHICAL && Math.abs(goalX - startX) <= ClusterGraph.CLUSTER_SIZE
+                && Math.abs(goalY - startY) <= ClusterGraph.CLUSTER_SIZE) {
+            mode = A_STAR;
         }
-        int t_final_cost = gridNode.getHeuristicCost() + cost;
 
-        boolean inOpen = open.contains(gridNode);
-        if (!inOpen || t_final_cost < gridNode.getFinalCost()) {
-            gridNode.setFinalCost(t_final_cost);
-            gridNode.setParent(current);
-            if (!inOpen) {
-                open.add(gridNode);
+        PathCache cache = map.getPathCache();
+        int version = map.getCellVersion();
+        int start = startY * walkability.getWidth() + startX;
+        int goal = goalY * walkability.getWidth() + goalX;
+        int next = cache.getNextStep(version, mode, start, goal);
+        if (next != PathCache.MISSING) {
+            return next;
+        }
+        if (mode == HIERARCHICAL) {
+            next = map.getClusterGraph().findNextStep(startX, startY, goalX, goalY);
+        } else {
+            PathfindingEngine engine = map.borrowPathfindingEngine();
+            if (mode == JUMP_POINT) {
+                next = engine.findNextJumpStep(walkability, WalkabilityMap.ENEMY, startX, startY, goalX, goalY);
+            } else {
+                next = engine.findNextStep(walkability, WalkabilityMap.ENEMY, startX, startY, goalX, goalY);
             }
+            map.releasePathfindingEngine(engine);
         }
+        cache.put(version, mode, start, goal, next);
+        return next;
     }
 
     /**
@@ -210,36 +139,14 @@ public class SmartTargetingEnemy extends Enemy {
             movementY = 1;
         }
 
-        if (currentMapState[currentY + movementY][currentX].getClass() == Ground.class && movementY != 0) {
+        if (isGround(currentX, currentY + movementY) && movementY != 0) {
             return new Point2D(0, movementY);
-        } else if (currentMapState[currentY][currentX + movementX].getClass() == Ground.class && movementX != 0) {
+        } else if (isGround(currentX + movementX, currentY) && movementX != 0) {
             return new Point2D(movementX, 0);
         }
         return new Point2D(0, 0);
     }
 
-    /**
-     * Sets the initial startNode/enemy position.
-     *
-     * @param x position of the enemy.
-     * @param y position of the enemy.
-     */
-    public void setStartGridNode(int x, int y) {
-        this.startX = x;
-        this.startY = y;
-    }
-
-    /**
-     * Sets the goalNode/playerPosition.
-     *
-     * @param x position of the player.
-     * @param y position of the player.
-     */
-    public void setEndGridNode(int x, int y) {
-        this.goalX = x;
-        this.goalY = y;
-    }
-
     /**
      * Sets Point2D position object for smart enemy.
      *
@@ -0,0 +1,143 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * This class models a uniform grid of buckets used to find the entities placed in an area of the map
+ * without going through all of them.
+ * <p>
+ * The map is split into square buckets, each holding the entities whose position falls inside it. Buckets are
+ * only created when something is placed in them, so the index does not depend on the size of the map.
+ *
+ * @param <T> type of the indexed entities.
+ */
+public class SpatialIndex<T> {
+    private final int bucketSize;
+    private HashMap<Long, ArrayList<T>> buckets;
+    private int size;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param bucketSize number of cells on the side of a bucket.
+     */
+    public SpatialIndex(int bucketSize) {
+        this.bucketSize = bucketSize;
+        buckets = new HashMap<>();
+        size = 0;
+    }
+
+    /**
+     * Adds an entity to the index.
+     *
+     * @param entity entity to be added.
+     * @param x      x coordinate of the entity.
+     * @param y      y coordinate of the entity.
+     */
+    public void insert(T entity, int x, int y) {
+        buckets.computeIfAbsent(toKey(x, y), key -> new ArrayList<>()).add(entity);
+        size++;
+    }
+
+    /**
+     * Removes an entity from the index.
+     *
+     * @param entity entity to be removed.
+     * @param x      x coordinate the entity was indexed at.
+     * @param y      y coordinate the entity was indexed at.
+     * @return True if the entity was found, else False.
+     */
+    public boolean remove(T entity, int x, int y) {
+        Long key = toKey(x, y);
+        ArrayList<T> bucket = buckets.get(key);
+
+        if (bucket == null || !bucket.remove(entity)) {
+            return false;
+        }
+        if (bucket.isEmpty()) {
+            buckets.remove(key);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Updates the index after an entity moved. Nothing changes if it stayed in the same bucket.
+     *
+     * @param entity entity that moved.
+     * @param oldX   x coordinate before the move.
+     * @param oldY   y coordinate before the move.
+     * @param newX   x coordinate after the move.
+     * @param newY   y coordinate after the move.
+     */
+    public void move(T entity, int oldX, int oldY, int newX, int newY) {
+        if (toKey(oldX, oldY).equals(toKey(newX, newY))) {
+            return;
+        }
+        if (remove(entity, oldX, oldY)) {
+            insert(entity, newX, newY);
+        }
+    }
+
+    /**
+     * Collects the entities of every bucket overlapping an area. The result may hold entities that are
+     * close to the area but not inside it, callers check the exact position themselves.
+     *
+     * @param minX   smallest x coordinate of the area.
+     * @param minY   smallest y coordinate of the area.
+     * @param maxX   largest x coordinate of the area.
+     * @param maxY   largest y coordinate of the area.
+     * @param result list the entities are put in, it is cleared first.
+     * @return the result list.
+     */
+    public ArrayList<T> query(int minX, int minY, int maxX, int maxY, ArrayList<T> result) {
+        result.clear();
+        for (int bucketY = Math.floorDiv(minY, bucketSize); bucketY <= Math.floorDiv(maxY, bucketSize); bucketY++) {
+            for (int bucketX = Math.floorDiv(minX, bucketSize); bucketX <= Math.floorDiv(maxX, bucketSize); bucketX++) {
+                ArrayList<T> bucket = buckets.get(toBucketKey(bucketX, bucketY));
+                if (bucket != null) {
+                    result.addAll(bucket);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes every entity from the index.
+     */
+    public void clear() {
+        buckets.clear();
+        size = 0;
+    }
+
+    /**
+     * Retrieves the number of indexed entities.
+     *
+     * @return number of entities.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the key of the bucket holding a cell.
+     *
+     * @param x x coordinate of the cell.
+     * @param y y coordinate of the cell.
+     * @return key of the bucket.
+     */
+    private Long toKey(int x, int y) {
+        return toBucketKey(Math.floorDiv(x, bucketSize), Math.floorDiv(y, bucketSize));
+    }
+
+    /**
+     * Packs the coordinates of a bucket into a single key.
+     *
+     * @param bucketX x coordinate of the bucket.
+     * @param bucketY y coordinate of the bucket.
+     * @return key of the bucket.
+     */
+    private static Long toBucketKey(int bucketX, int bucketY) {
+        return ((long) bucketY << 32) | (bucketX & 0xFFFFFFFFL);
+    }
+}
@@ -57,15 +57,24 @@ public class SpriteAnimation {
      * Update the animation.
      */
     public void update() {
+        update(System.nanoTime());
+    }
+
+    /**
+     * Update the animation for the given time.
+     *
+     * @param now The current time in nanoseconds, e.g. the timestamp of a pulse.
+     */
+    public void update(long now) {
         if (delay == -1) {
             return;
         }
 
-        long elapsed = (System.nanoTime() - startTime) / 1000000;
+        long elapsed = (now - startTime) / 1000000;
 
         if (elapsed > delay) {
             currentFrame++;
-            startTime = System.nanoTime();
+            startTime = now;
         }
         if (currentFrame == frames.length) {
             currentFrame = 0;
@@ -0,0 +1,107 @@
+import javafx.scene.Node;
+
+/**
+ * This class moves a node in a straight line over a given time. It does not run by itself, the frame loop
+ * updates it on every pulse with the pulse timestamp.
+ */
+public class SpriteMotion {
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private Node node;
+    private double fromX;
+    private double fromY;
+    private double toX;
+    private double toY;
+    private long duration;
+    private long startTime;
+    private boolean isRunning = false;
+    private Runnable onFinished;
+
+    /**
+     * Creates a motion for a node.
+     *
+     * @param node The node that is moved.
+     */
+    public SpriteMotion(Node node) {
+        this.node = node;
+    }
+
+    /**
+     * Starts moving the node from its current translation to the given one.
+     * The motion starts counting from the next pulse of the frame loop.
+     *
+     * @param toX     The final x translation.
+     * @param toY     The final y translation.
+     * @param seconds The duration of the motion.
+     */
+    public void start(double toX, double toY, double seconds) {
+        this.fromX = node.getTranslateX();
+        this.fromY = node.getTranslateY();
+        this.toX = toX;
+        this.toY = toY;
+        this.duration = (long) (seconds * NANOS_PER_SECOND);
+        this.startTime = -1;
+        this.isRunning = true;
+    }
+
+    /**
+     * Stops the motion, leaving the node where it is.
+     */
+    public void stop() {
+        isRunning = false;
+    }
+
+    /**
+     * Checks if the motion is running.
+     *
+     * @return isRunning.
+     */
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    /**
+     * Set the action executed when the motion reaches its destination.
+     *
+     * @param onFinished The action.
+     */
+    public void setOnFinished(Runnable onFinished) {
+        this.onFinished = onFinished;
+    }
+
+    /**
+     * Get the action executed when the motion reaches its destination.
+     *
+     * @return The action, or null if there is none.
+     */
+    public Runnable getOnFinished() {
+        return onFinished;
+    }
+
+    /**
+     * Moves the node to where it should be at the given time.
+     *
+     * @param now The timestamp of the current pulse in nanoseconds.
+     * @return True if the motion reached its destination on this pulse, false otherwise.
+     */
+    public boolean update(long now) {
+        if (!isRunning) {
+            return false;
+        }
+        if (startTime < 0) {
+            startTime = now;
+        }
+
+        double progress = 1.0;
+        if (duration > 0) {
+            progress = Math.min(1.0, (now - startTime) / (double) duration);
+        }
+        node.setTranslateX(fromX + (toX - fromX) * progress);
+        node.setTranslateY(fromY + (toY - fromY) * progress);
+
+        if (progress >= 1.0) {
+            isRunning = false;
+            return true;
+        }
+        return false;
+    }
+}
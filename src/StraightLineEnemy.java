@@ -1,8 +1,6 @@
 import javafx.geometry.Point2D;
 import javafx.scene.image.Image;
 
-import java.io.FileInputStream;
-
 /**
  * Class used for basic straight line walking enemy.
  *
@@ -12,7 +10,6 @@ import java.io.FileInputStream;
 public class StraightLineEnemy extends Enemy {
     private String direction; // Direction enemy faces e.g "U" = Up
     private Point2D position; // Position of enemy.
-    private Cell[][] currentMapState = Map.getInstance().getCellArray();
     private String filePath = "assets/images/StraightLineEnemy.png";
     private Image artAsset;
 
@@ -25,11 +22,7 @@ public class StraightLineEnemy extends Enemy {
     public StraightLineEnemy(Point2D point2D, String direction) {
         this.position = point2D;
         this.direction = direction;
-        try {
-            artAsset = new Image(new FileInputStream(filePath));
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        artAsset = AssetRegistry.getInstance().getImage(filePath);
     }
 
     /**
@@ -44,28 +37,28 @@ public class StraightLineEnemy extends Enemy {
 
         switch (direction) {
             case "U":
-                if (!currentMapState[currentY - 1][currentX].isPassable()) {
+                if (!isPassable(currentX, currentY - 1)) {
                     this.setDirection("D");
                     return (new Point2D(0.0, 1.0));
                 } else {
                     return (new Point2D(0.0, -1.0));
                 }
             case "D":
-                if (!currentMapState[currentY + 1][currentX].isPassable()) {
+                if (!isPassable(currentX, currentY + 1)) {
                     this.setDirection("U");
                     return (new Point2D(0.0, -1.0));
                 } else {
                     return (new Point2D(0.0, 1.0));
                 }
             case "L":
-                if (!currentMapState[currentY][currentX - 1].isPassable()) {
+                if (!isPassable(currentX - 1, currentY)) {
                     this.setDirection("R");
                     return (new Point2D(1.0, 0.0));
                 } else {
                     return (new Point2D(-1.0, 0.0));
                 }
             case "R":
-                if (!currentMapState[currentY][currentX + 1].isPassable()) {
+                if (!isPassable(currentX + 1, currentY)) {
                     this.setDirection("L");
                     return (new Point2D(-1.0, 0.0));
                 } else {
@@ -0,0 +1,128 @@
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/**
+ * This class packs the art assets into a few large pages, so the renderer draws them from a handful of textures
+ * instead of one texture per asset. A sprite is found on its page by its name or by its original image.
+ * <p>
+ * Sprites are packed in rows, tallest first. A sprite too large for a page is left out and drawn from its own image.
+ */
+public class TextureAtlas {
+    private static final int PAGE_SIZE = 1024;
+    //Empty pixels left around each sprite so scaled drawing does not pick up its neighbours.
+    private static final int PADDING = 1;
+    private ArrayList<WritableImage> pages;
+    private HashMap<String, AtlasRegion> regionsByName;
+    private IdentityHashMap<Image, AtlasRegion> regionsByImage;
+
+    /**
+     * Packs the given images into an atlas.
+     *
+     * @param images images to be packed, by name.
+     */
+    public TextureAtlas(HashMap<String, Image> images) {
+        pages = new ArrayList<>();
+        regionsByName = new HashMap<>();
+        regionsByImage = new IdentityHashMap<>();
+
+        ArrayList<String> names = new ArrayList<>();
+        for (String name : images.keySet()) {
+            Image image = images.get(name);
+            if (image != null && image.getPixelReader() != null
+                    && image.getWidth() + 2 * PADDING <= PAGE_SIZE && image.getHeight() + 2 * PADDING <= PAGE_SIZE) {
+                names.add(name);
+            }
+        }
+        names.sort((name1, name2) -> {
+            int byHeight = Double.compare(images.get(name2).getHeight(), images.get(name1).getHeight());
+            return byHeight != 0 ? byHeight : name1.compareTo(name2);
+        });
+
+        pack(images, names);
+    }
+
+    /**
+     * Places the sprites row by row, starting a new page when one is full.
+     *
+     * @param images images to be packed, by name.
+     * @param names  names of the images, in packing order.
+     */
+    private void pack(HashMap<String, Image> images, ArrayList<String> names) {
+        PixelWriter writer = null;
+        WritableImage page = null;
+        int x = 0;
+        int y = 0;
+        int rowHeight = 0;
+
+        for (String name : names) {
+            Image image = images.get(name);
+            int width = (int) image.getWidth();
+            int height = (int) image.getHeight();
+
+            if (page != null && x + width + 2 * PADDING > PAGE_SIZE) {
+                x = 0;
+                y += rowHeight;
+                rowHeight = 0;
+            }
+            if (page == null || y + height + 2 * PADDING > PAGE_SIZE) {
+                page = new WritableImage(PAGE_SIZE, PAGE_SIZE);
+                writer = page.getPixelWriter();
+                pages.add(page);
+                x = 0;
+                y = 0;
+                rowHeight = 0;
+            }
+
+            writer.setPixels(x + PADDING, y + PADDING, width, height, image.getPixelReader(), 0, 0);
+            AtlasRegion region = new AtlasRegion(page, x + PADDING, y + PADDING, width, height);
+            regionsByName.put(name, region);
+            regionsByImage.put(image, region);
+
+            x += width + 2 * PADDING;
+            rowHeight = Math.max(rowHeight, height + 2 * PADDING);
+        }
+    }
+
+    /**
+     * Retrieves the region of a sprite by its name.
+     *
+     * @param name name of the sprite, the path it was loaded from.
+     * @return region of the sprite, or null if it is not in the atlas.
+     */
+    public AtlasRegion getRegion(String name) {
+        return regionsByName.get(name);
+    }
+
+    /**
+     * Retrieves the region of a sprite by the image it was packed from.
+     *
+     * @param image original image of the sprite.
+     * @return region of the sprite, or null if it is not in the atlas.
+     */
+    public AtlasRegion getRegion(Image image) {
+        return regionsByImage.get(image);
+    }
+
+    /**
+     * Retrieves the number of sprites in the atlas.
+     *
+     * @return number of sprites.
+     */
+    public int getSpriteCount() {
+        return regionsByName.size();
+    }
+
+    /**
+     * Retrieves the number of pages of the atlas.
+     *
+     * @return number of pages.
+     */
+    public int getPageCount() {
+        return pages.size();
+    }
+}
@@ -1,7 +1,5 @@
 import javafx.scene.image.Image;
 
-import java.io.FileInputStream;
-
 /**
  * This class contains the frames for the player's sprite animation.
  *
@@ -25,19 +23,15 @@ public class TileMap {
          * 1 - facing left
          * 2 - facing backwards
          */
-        try {
-            playerFrames[0][0] = new Image(new FileInputStream(prefix + "player_dwn1.png"));
-            playerFrames[0][1] = new Image(new FileInputStream(prefix + "player_dwn2.png"));
-            playerFrames[0][2] = new Image(new FileInputStream(prefix + "player_dwn3.png"));
-            playerFrames[1][0] = new Image(new FileInputStream(prefix + "player_left1.png"));
-            playerFrames[1][1] = new Image(new FileInputStream(prefix + "player_left2.png"));
-            playerFrames[1][2] = new Image(new FileInputStream(prefix + "player_left3.png"));
-            playerFrames[2][0] = new Image(new FileInputStream(prefix + "player_up1.png"));
-            playerFrames[2][1] = new Image(new FileInputStream(prefix + "player_up2.png"));
-            playerFrames[2][2] = new Image(new FileInputStream(prefix + "player_up3.png"));
-        } catch (Exception e) {
-            System.out.println("Couldn't find the images");
-        }
+        playerFrames[0][0] = AssetRegistry.getInstance().getImage(prefix + "player_dwn1.png");
+        playerFrames[0][1] = AssetRegistry.getInstance().getImage(prefix + "player_dwn2.png");
+        playerFrames[0][2] = AssetRegistry.getInstance().getImage(prefix + "player_dwn3.png");
+        playerFrames[1][0] = AssetRegistry.getInstance().getImage(prefix + "player_left1.png");
+        playerFrames[1][1] = AssetRegistry.getInstance().getImage(prefix + "player_left2.png");
+        playerFrames[1][2] = AssetRegistry.getInstance().getImage(prefix + "player_left3.png");
+        playerFrames[2][0] = AssetRegistry.getInstance().getImage(prefix + "player_up1.png");
+        playerFrames[2][1] = AssetRegistry.getInstance().getImage(prefix + "player_up2.png");
+        playerFrames[2][2] = AssetRegistry.getInstance().getImage(prefix + "player_up3.png");
     }
 
     /**
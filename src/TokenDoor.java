@@ -1,9 +1,6 @@
 import javafx.scene.image.Image;
 import javafx.geometry.Point2D;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-
 /**
  * This Class models a token door, a door that can be opened with tokens.
  *
@@ -25,11 +22,7 @@ public class TokenDoor extends Door {
         isPassable = false;
         numberOfTokens = 0;
 
-        try {
-            artAsset = new Image(new FileInputStream(filePath));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        artAsset = AssetRegistry.getInstance().getImage(filePath);
     }
 
     /**
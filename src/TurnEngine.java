@@ -0,0 +1,313 @@
+import javafx.geometry.Point2D;
+
+import java.util.ArrayList;
+
+/**
+ * This class holds the rules of the game. A turn is resolved at once by {@link #step(int, int)}: the player's
+ * move, the doors it opens, the teleporters, the moves of the enemies, the items picked up and whether the
+ * player died or reached the goal. Nothing waits for an animation and nothing is drawn, the game master
+ * animates the result afterwards, so bots and tools can play a level without a window as fast as the enemies
+ * decide their moves.
+ * <p>
+ * Such a tool can also hand the enemies to an enemy store, which moves them without allocating anything.
+ * The enemy objects of the map then stay where they are and the renderer can not draw the game.
+ */
+public class TurnEngine {
+    private Map map;
+    private EnemyPlanner enemyPlanner; //Works out the moves of the enemies, in parallel when there are many.
+    private EnemyStore enemyStore; //Holds the enemies instead of the map when set.
+    private TurnResult result;
+    private int turn; //Number of moves the player made, the enemies work out their moves once per turn.
+    private boolean isOver;
+
+    /**
+     * Creates the engine of a map.
+     *
+     * @param map the map the game is played on.
+     */
+    public TurnEngine(Map map) {
+        this(map, null);
+    }
+
+    /**
+     * Creates the engine of a map whose enemies are held by an enemy store.
+     *
+     * @param map        the map the game is played on.
+     * @param enemyStore the enemies, null to play the enemies of the map.
+     */
+    public TurnEngine(Map map, EnemyStore enemyStore) {
+        this.map = map;
+        this.enemyStore = enemyStore;
+        enemyPlanner = new EnemyPlanner();
+        result = new TurnResult();
+    }
+
+    /**
+     * Plays a turn, moving the player by one cell.
+     *
+     * @param x horizontal direction of the move, -1, 0 or 1.
+     * @param y vertical direction of the move, -1, 0 or 1.
+     * @return what happened during the turn, only valid until the next one.
+     */
+    public TurnResult step(int x, int y) {
+        result.reset(x, y);
+        if (isOver || (x == 0 && y == 0)) {
+            return result;
+        }
+
+        Point2D player = map.getPlayer().getPosition();
+        int targetX = (int) player.getX() + x;
+        int targetY = (int) player.getY() + y;
+        Cell candidateCell = map.getCellArray()[targetY][targetX];
+        Point2D exit = null;
+        boolean canExecuteMove = false;
+
+        if (candidateCell.isPassable()) {
+            if (candidateCell.getClass() == Teleporter.class) {
+                exit = ((Teleporter) candidateCell).getTeleportDestination(x, y);
+            }
+            canExecuteMove = true;
+        } else if (candidateCell.getClass() == TokenDoor.class) {
+            canExecuteMove = tokenDoorAction(targetX, targetY, (TokenDoor) candidateCell);
+        } else if (candidateCell.getClass() == KeyDoor.class) {
+            canExecuteMove = keyDoorAction(targetX, targetY, (KeyDoor) candidateCell);
+        }
+        if (!canExecuteMove) {
+            return result;
+        }
+
+        turn++;
+        result.setTurn(turn);
+        if (exit != null) {
+            //The enemies move once the player came out of the linked teleporter, it can not be caught on the way.
+            Point2D link = ((Teleporter) candidateCell).getLink().getPosition();
+            result.setTeleport((int) link.getX(), (int) link.getY(), (int) exit.getX(), (int) exit.getY());
+            map.getPlayer().setPosition(link);
+            moveEnemies();
+            targetX = (int) (link.getX() + exit.getX());
+            targetY = (int) (link.getY() + exit.getY());
+        } else {
+            moveEnemies();
+            if (checkCollisionWithEnemies(x, y)) {
+                result.setEnd((int) player.getX(), (int) player.getY());
+                return finish(TurnResult.CAUGHT);
+            }
+        }
+
+        map.getPlayer().setPosition(new Point2D(targetX, targetY));
+        result.setEnd(targetX, targetY);
+        return finish(checkGround(targetX, targetY));
+    }
+
+    /**
+     * Get the number of turns played since the level started.
+     *
+     * @return the current turn.
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * Checks if the player died or reached the goal, after which no turn can be played.
+     *
+     * @return True if the game is over, else False.
+     */
+    public boolean isOver() {
+        return isOver;
+    }
+
+    /**
+     * Get the result of the last turn.
+     *
+     * @return the result.
+     */
+    public TurnResult getResult() {
+        return result;
+    }
+
+    /**
+     * Get the planner working out the moves of the enemies.
+     *
+     * @return The enemy planner.
+     */
+    public EnemyPlanner getEnemyPlanner() {
+        return enemyPlanner;
+    }
+
+    /**
+     * Get the store holding the enemies.
+     *
+     * @return the enemy store, null if the enemies of the map are played.
+     */
+    public EnemyStore getEnemyStore() {
+        return enemyStore;
+    }
+
+    /**
+     * Check if the player ran into an enemy coming the other way, i.e. an enemy that just moved from the cell the
+     * player moves to onto the player's cell.
+     *
+     * @param moveX The x coordinate on which the player moves.
+     * @param moveY The y coordinate on which the player moves.
+     * @return whether a player has collided into an enemy or not.
+     */
+    public boolean checkCollisionWithEnemies(int moveX, int moveY) {
+        Point2D player = map.getPlayer().getPosition();
+        int playerX = (int) player.getX();
+        int playerY = (int) player.getY();
+
+        if (enemyStore != null) {
+            for (int i = 0; i < enemyStore.size(); i++) {
+                if (enemyStore.getX(i) == playerX && enemyStore.getY(i) == playerY
+                        && enemyStore.getX(i) - enemyStore.getMoveX(i) == playerX + moveX
+                        && enemyStore.getY(i) - enemyStore.getMoveY(i) == playerY + moveY) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        EnemyOccupancy occupancy = map.getEnemyOccupancy();
+        for (int i = occupancy.getFirst(playerX, playerY); i != EnemyOccupancy.NONE; i = occupancy.getNext(i)) {
+            if (i < result.getEnemyCount()) {
+                Point2D enemyMove = result.getEnemyMove(i);
+                if ((int) enemyMove.getX() == -moveX && (int) enemyMove.getY() == -moveY) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check what the player finds on the cell it moved to.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     * @return MOVED, DIED or REACHED_GOAL.
+     */
+    private int checkGround(int x, int y) {
+        checkForItems(x, y);
+        if (checkForEnemies(x, y)) {
+            return TurnResult.DIED;
+        }
+
+        Cell currentCell = map.getCellArray()[y][x];
+        if (currentCell.getClass() == Fire.class) {
+            if (!((Fire) currentCell).playerHasItem()) {
+                return TurnResult.DIED;
+            }
+        } else if (currentCell.getClass() == Water.class) {
+            if (!((Water) currentCell).playerHasItem()) {
+                return TurnResult.DIED;
+            }
+        } else if (currentCell.getClass() == Goal.class) {
+            return TurnResult.REACHED_GOAL;
+        }
+        return TurnResult.MOVED;
+    }
+
+    /**
+     * Check if there are enemies on a cell.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     * @return True if an enemy stands on the cell, else False.
+     */
+    public boolean checkForEnemies(int x, int y) {
+        if (enemyStore != null) {
+            return enemyStore.findEnemyAt(x, y) != -1;
+        }
+        return map.isEnemyAt(x, y);
+    }
+
+    /**
+     * Picks up the item lying on a cell, if there is one.
+     *
+     * @param x coordinate of the cell.
+     * @param y coordinate of the cell.
+     */
+    private void checkForItems(int x, int y) {
+        Item item = map.getItemAt(x, y);
+        if (item != null) {
+            map.getPlayer().addItem(item);
+            map.removeItem(item);
+            result.setPickedItem(item);
+        }
+    }
+
+    /**
+     * The action for the colored key door.
+     *
+     * @param x    coordinate of the door.
+     * @param y    coordinate of the door.
+     * @param door the door.
+     * @return true if the door opened.
+     */
+    private boolean keyDoorAction(int x, int y, KeyDoor door) {
+        if (door.open()) {
+            openDoor(x, y);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The action for the token door. A door asking for no token never opens, the player has to hold at least
+     * one token.
+     *
+     * @param x    coordinate of the door.
+     * @param y    coordinate of the door.
+     * @param door the door.
+     * @return true if the door opened.
+     */
+    private boolean tokenDoorAction(int x, int y, TokenDoor door) {
+        int requiredTokens = door.getNumberOfTokens();
+        if (requiredTokens > 0 && map.getPlayer().getTokenCount() >= requiredTokens) {
+            openDoor(x, y);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Changes a door into a Ground tile.
+     *
+     * @param x coordinate of the door.
+     * @param y coordinate of the door.
+     */
+    private void openDoor(int x, int y) {
+        map.setCell(x, y, new Ground());
+        result.setDoor(x, y);
+    }
+
+    /**
+     * Works out the move of every enemy for the turn and applies them. The moves of the enemies of the map are
+     * kept in the result of the turn.
+     */
+    private void moveEnemies() {
+        if (enemyStore != null) {
+            enemyStore.stepAll();
+            return;
+        }
+        ArrayList<Enemy> enemies = map.getEnemyArray();
+        Point2D[] enemyMoves = enemyPlanner.planTurn(enemies, turn);
+        for (int i = 0; i < enemies.size(); i++) {
+            map.moveEnemy(i, enemyMoves[i]);
+        }
+        result.setEnemyMoves(enemyMoves, enemies.size());
+    }
+
+    /**
+     * Ends the turn.
+     *
+     * @param outcome what the turn ended with.
+     * @return the result of the turn.
+     */
+    private TurnResult finish(int outcome) {
+        result.setOutcome(outcome);
+        isOver = result.isOver();
+        return result;
+    }
+}
@@ -0,0 +1,301 @@
+import javafx.geometry.Point2D;
+
+/**
+ * This class describes what happened during a turn resolved by the turn engine, so the renderer can animate it
+ * after the fact. The engine reuses a single result, it is only valid until the next turn.
+ */
+public class TurnResult {
+    public static final int BLOCKED = 0; //The player could not move, nothing happened.
+    public static final int MOVED = 1; //The player moved and is still alive.
+    public static final int CAUGHT = 2; //The player ran into an enemy coming the other way and did not move.
+    public static final int DIED = 3; //The player died on the cell it moved to.
+    public static final int REACHED_GOAL = 4;
+    private int outcome;
+    private int turn;
+    private int moveX;
+    private int moveY;
+    private int endX;
+    private int endY;
+    private int doorX;
+    private int doorY;
+    private Item pickedItem;
+    private boolean isTeleported;
+    private int linkX;
+    private int linkY;
+    private int exitX;
+    private int exitY;
+    private Point2D[] enemyMoves;
+    private int enemyCount;
+
+    /**
+     * Creates an empty result.
+     */
+    public TurnResult() {
+        enemyMoves = new Point2D[0];
+    }
+
+    /**
+     * Get what the turn ended with.
+     *
+     * @return BLOCKED, MOVED, CAUGHT, DIED or REACHED_GOAL.
+     */
+    public int getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Checks if the turn was played, i.e. the player could move.
+     *
+     * @return True if the turn was played, else False.
+     */
+    public boolean isPlayed() {
+        return outcome != BLOCKED;
+    }
+
+    /**
+     * Checks if the player can not play any more turn.
+     *
+     * @return True if the player died or reached the goal, else False.
+     */
+    public boolean isOver() {
+        return outcome == CAUGHT || outcome == DIED || outcome == REACHED_GOAL;
+    }
+
+    /**
+     * Get the number of the turn.
+     *
+     * @return the turn, the first move of the player being turn 1.
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * Get the horizontal direction the player moved with.
+     *
+     * @return -1, 0 or 1.
+     */
+    public int getMoveX() {
+        return moveX;
+    }
+
+    /**
+     * Get the vertical direction the player moved with.
+     *
+     * @return -1, 0 or 1.
+     */
+    public int getMoveY() {
+        return moveY;
+    }
+
+    /**
+     * Get the x coordinate of the player at the end of the turn.
+     *
+     * @return x coordinate of the player.
+     */
+    public int getEndX() {
+        return endX;
+    }
+
+    /**
+     * Get the y coordinate of the player at the end of the turn.
+     *
+     * @return y coordinate of the player.
+     */
+    public int getEndY() {
+        return endY;
+    }
+
+    /**
+     * Checks if a door was opened during the turn.
+     *
+     * @return True if a door was opened, else False.
+     */
+    public boolean hasOpenedDoor() {
+        return doorX != -1;
+    }
+
+    /**
+     * Get the x coordinate of the door opened during the turn.
+     *
+     * @return x coordinate of the door, -1 if no door was opened.
+     */
+    public int getDoorX() {
+        return doorX;
+    }
+
+    /**
+     * Get the y coordinate of the door opened during the turn.
+     *
+     * @return y coordinate of the door, -1 if no door was opened.
+     */
+    public int getDoorY() {
+        return doorY;
+    }
+
+    /**
+     * Get the item the player picked up at the end of the turn.
+     *
+     * @return the item, null if none was picked up.
+     */
+    public Item getPickedItem() {
+        return pickedItem;
+    }
+
+    /**
+     * Checks if the player went through a teleporter.
+     *
+     * @return True if the player was teleported, else False.
+     */
+    public boolean isTeleported() {
+        return isTeleported;
+    }
+
+    /**
+     * Get the x coordinate of the teleporter the player came out of.
+     *
+     * @return x coordinate of the teleporter.
+     */
+    public int getLinkX() {
+        return linkX;
+    }
+
+    /**
+     * Get the y coordinate of the teleporter the player came out of.
+     *
+     * @return y coordinate of the teleporter.
+     */
+    public int getLinkY() {
+        return linkY;
+    }
+
+    /**
+     * Get the horizontal direction the player stepped off the teleporter with.
+     *
+     * @return -1, 0 or 1.
+     */
+    public int getExitX() {
+        return exitX;
+    }
+
+    /**
+     * Get the vertical direction the player stepped off the teleporter with.
+     *
+     * @return -1, 0 or 1.
+     */
+    public int getExitY() {
+        return exitY;
+    }
+
+    /**
+     * Get the number of enemies that took a move during the turn.
+     *
+     * @return the number of enemies, 0 if the turn was not played or the enemies are held by an enemy store.
+     */
+    public int getEnemyCount() {
+        return enemyCount;
+    }
+
+    /**
+     * Get the move an enemy took during the turn.
+     *
+     * @param index position of the enemy in the enemy list of the map.
+     * @return the direction of the move.
+     */
+    public Point2D getEnemyMove(int index) {
+        return enemyMoves[index];
+    }
+
+    /**
+     * Clears the result for a new turn.
+     *
+     * @param moveX horizontal direction the player moves with.
+     * @param moveY vertical direction the player moves with.
+     */
+    void reset(int moveX, int moveY) {
+        this.moveX = moveX;
+        this.moveY = moveY;
+        outcome = BLOCKED;
+        doorX = -1;
+        doorY = -1;
+        pickedItem = null;
+        isTeleported = false;
+        enemyCount = 0;
+    }
+
+    /**
+     * Sets what the turn ended with.
+     *
+     * @param outcome BLOCKED, MOVED, CAUGHT, DIED or REACHED_GOAL.
+     */
+    void setOutcome(int outcome) {
+        this.outcome = outcome;
+    }
+
+    /**
+     * Sets the number of the turn.
+     *
+     * @param turn the turn.
+     */
+    void setTurn(int turn) {
+        this.turn = turn;
+    }
+
+    /**
+     * Sets the position of the player at the end of the turn.
+     *
+     * @param endX x coordinate of the player.
+     * @param endY y coordinate of the player.
+     */
+    void setEnd(int endX, int endY) {
+        this.endX = endX;
+        this.endY = endY;
+    }
+
+    /**
+     * Sets the door opened during the turn.
+     *
+     * @param doorX x coordinate of the door.
+     * @param doorY y coordinate of the door.
+     */
+    void setDoor(int doorX, int doorY) {
+        this.doorX = doorX;
+        this.doorY = doorY;
+    }
+
+    /**
+     * Sets the item picked up at the end of the turn.
+     *
+     * @param pickedItem the item.
+     */
+    void setPickedItem(Item pickedItem) {
+        this.pickedItem = pickedItem;
+    }
+
+    /**
+     * Sets the teleporter the player came out of and the direction it stepped off it with.
+     *
+     * @param linkX x coordinate of the teleporter.
+     * @param linkY y coordinate of the teleporter.
+     * @param exitX horizontal direction of the step off the teleporter.
+     * @param exitY vertical direction of the step off the teleporter.
+     */
+    void setTeleport(int linkX, int linkY, int exitX, int exitY) {
+        isTeleported = true;
+        this.linkX = linkX;
+        this.linkY = linkY;
+        this.exitX = exitX;
+        this.exitY = exitY;
+    }
+
+    /**
+     * Sets the moves the enemies took during the turn.
+     *
+     * @param enemyMoves the moves, the move of an enemy at its position in the enemy list of the map.
+     * @param enemyCount the number of enemies.
+     */
+    void setEnemyMoves(Point2D[] enemyMoves, int enemyCount) {
+        this.enemyMoves = enemyMoves;
+        this.enemyCount = enemyCount;
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * This class holds, for every cell of the map, one bit telling if it can be walked on, with one set of bits for
+ * each way of moving. The player can walk on every passable cell, the enemies only on ground.
+ * <p>
+ * The bits are worked out once from the cells and only the bit of a replaced cell changes afterwards,
+ * so reading them is much cheaper than going through the cell objects. They are kept both row by row and
+ * column by column, so 64 cells of a row or of a column can be read at once.
+ */
+public class WalkabilityMap {
+    public static final int PLAYER = 0;
+    public static final int ENEMY = 1;
+    private static final int MOVEMENT_CLASSES = 2;
+    private final int width;
+    private final int height;
+    private long[][] bits; //Row by row, the cell (x, y) is bit y * width + x.
+    private long[][] columnBits; //Column by column, the cell (x, y) is bit x * height + y.
+
+    /**
+     * Works out the walkability of every cell of a map.
+     *
+     * @param cells the cells of the map.
+     */
+    public WalkabilityMap(Cell[][] cells) {
+        height = cells.length;
+        width = height == 0 ? 0 : cells[0].length;
+        bits = new long[MOVEMENT_CLASSES][(width * height + 63) / 64];
+        columnBits = new long[MOVEMENT_CLASSES][(width * height + 63) / 64];
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                update(x, y, cells[y][x]);
+            }
+        }
+    }
+
+    /**
+     * Works out the walkability of a cell again.
+     *
+     * @param x    coordinate of the cell.
+     * @param y    coordinate of the cell.
+     * @param cell the cell.
+     */
+    public void update(int x, int y, Cell cell) {
+        set(PLAYER, x, y, cell != null && cell.isPassable());
+        set(ENEMY, x, y, cell != null && cell.getClass() == Ground.class);
+    }
+
+    /**
+     * Checks if a cell can be walked on.
+     *
+     * @param movementClass PLAYER or ENEMY.
+     * @param x             coordinate of the cell.
+     * @param y             coordinate of the cell.
+     * @return True if the cell is on the map and can be walked on, else False.
+     */
+    public boolean isWalkable(int movementClass, int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        int index = y * width + x;
+        return (bits[movementClass][index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Reads the bits of up to 64 cells of a row, going right from a cell. Bit i tells if the cell x + i can be
+     * walked on, cells past the end of the row or off the map read as not walkable.
+     *
+     * @param movementClass PLAYER or ENEMY.
+     * @param x             coordinate of the first cell.
+     * @param y             coordinate of the row.
+     * @return the bits of the cells.
+     */
+    public long getRowBits(int movementClass, int x, int y) {
+        if (y < 0 || y >= height) {
+            return 0;
+        }
+        return readLine(bits[movementClass], y * width, width, x);
+    }
+
+    /**
+     * Reads the bits of up to 64 cells of a row, going left from a cell. Bit i tells if the cell x - i can be
+     * walked on, cells before the start of the row or off the map read as not walkable.
+     *
+     * @param movementClass PLAYER or ENEMY.
+     * @param x             coordinate of the first cell.
+     * @param y             coordinate of the row.
+     * @return the bits of the cells.
+     */
+    public long getRowBitsBackwards(int movementClass, int x, int y) {
+        if (y < 0 || y >= height) {
+            return 0;
+        }
+        return readLineBackwards(bits[movementClass], y * width, width, x);
+    }
+
+    /**
+     * Reads the bits of up to 64 cells of a column, going down from a cell. Bit i tells if the cell y + i can be
+     * walked on, cells past the end of the column or off the map read as not walkable.
+     *
+     * @param movementClass PLAYER or ENEMY.
+     * @param x             coordinate of the column.
+     * @param y             coordinate of the first cell.
+     * @return the bits of the cells.
+     */
+    public long getColumnBits(int movementClass, int x, int y) {
+        if (x < 0 || x >= width) {
+            return 0;
+        }
+        return readLine(columnBits[movementClass], x * height, height, y);
+    }
+
+    /**
+     * Reads the bits of up to 64 cells of a column, going up from a cell. Bit i tells if the cell y - i can be
+     * walked on, cells before the start of the column or off the map read as not walkable.
+     *
+     * @param movementClass PLAYER or ENEMY.
+     * @param x             coordinate of the column.
+     * @param y             coordinate of the first cell.
+     * @return the bits of the cells.
+     */
+    public long getColumnBitsBackwards(int movementClass, int x, int y) {
+        if (x < 0 || x >= width) {
+            return 0;
+        }
+        return readLineBackwards(columnBits[movementClass], x * height, height, y);
+    }
+
+    /**
+     * Retrieves the number of cells on a row of the map.
+     *
+     * @return width of the map.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Retrieves the number of rows of the map.
+     *
+     * @return height of the map.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Reads up to 64 bits of a row or column, going forwards from a position on it.
+     *
+     * @param words     the words holding the bits.
+     * @param lineStart index of the first bit of the line.
+     * @param length    number of cells on the line.
+     * @param position  position of the first cell read.
+     * @return the bits, 0 for the positions off the line.
+     */
+    private static long readLine(long[] words, int lineStart, int length, int position) {
+        if (position < 0 || position >= length) {
+            return 0;
+        }
+        long line = read(words, lineStart + position);
+        if (length - position < 64) {
+            line &= (1L << (length - position)) - 1;
+        }
+        return line;
+    }
+
+    /**
+     * Reads up to 64 bits of a row or column, going backwards from a position on it.
+     *
+     * @param words     the words holding the bits.
+     * @param lineStart index of the first bit of the line.
+     * @param length    number of cells on the line.
+     * @param position  position of the first cell read.
+     * @return the bits, bit i for the position - i, 0 for the positions off the line.
+     */
+    private static long readLineBackwards(long[] words, int lineStart, int length, int position) {
+        if (position < 0 || position >= length) {
+            return 0;
+        }
+        //Read so that the first cell ends on the highest bit, then reverse.
+        long line;
+        if (position >= 63) {
+            line = read(words, lineStart + position - 63);
+        } else {
+            line = read(words, lineStart) << (63 - position);
+        }
+        return Long.reverse(line);
+    }
+
+    /**
+     * Reads 64 bits starting from any bit, the bits past the end of the array read as 0.
+     *
+     * @param words the words holding the bits.
+     * @param index index of the first bit.
+     * @return the bits.
+     */
+    private static long read(long[] words, int index) {
+        int word = index >>> 6;
+        int shift = index & 63;
+        long result = word < words.length ? words[word] >>> shift : 0;
+        if (shift != 0 && word + 1 < words.length) {
+            result |= words[word + 1] << (64 - shift);
+        }
+        return result;
+    }
+
+    /**
+     * Sets the bit of a cell.
+     *
+     * @param movementClass PLAYER or ENEMY.
+     * @param x             coordinate of the cell.
+     * @param y             coordinate of the cell.
+     * @param isWalkable    true if the cell can be walked on.
+     */
+    private void set(int movementClass, int x, int y, boolean isWalkable) {
+        int index = y * width + x;
+        int columnIndex = x * height + y;
+        if (isWalkable) {
+            bits[movementClass][index >>> 6] |= 1L << index;
+            columnBits[movementClass][columnIndex >>> 6] |= 1L << columnIndex;
+        } else {
+            bits[movementClass][index >>> 6] &= ~(1L << index);
+            columnBits[movementClass][columnIndex >>> 6] &= ~(1L << columnIndex);
+        }
+    }
+}
@@ -1,8 +1,5 @@
 import javafx.scene.image.Image;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-
 /**
  * This Class models a Wall.
  *
@@ -19,11 +16,7 @@ public class Wall extends Cell {
      * Constructor.
      */
     public Wall() {
-        try {
-            artAsset = new Image(new FileInputStream(filePath));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        artAsset = AssetRegistry.getInstance().getImage(filePath);
     }
 
     /**
@@ -1,9 +1,6 @@
 import javafx.geometry.Point2D;
 import javafx.scene.image.Image;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-
 /**
  * Class used for basic wall following walking enemy.
  *
@@ -14,7 +11,6 @@ import java.io.FileNotFoundException;
 public class WallFollowingEnemy extends Enemy {
     private String direction; //Direction enemy faces e.g "U" = Up
     private Point2D position; //Position of enemy.
-    private Cell[][] currentMapState = Map.getInstance().getCellArray(); // MapState
     private String filePath = "assets/images/WallFollowingEnemy.png";
     private static Image artAsset;
     private boolean hasToRedirect = false; //if the enemy has to change his direction.
@@ -31,11 +27,7 @@ public class WallFollowingEnemy extends Enemy {
     public WallFollowingEnemy(Point2D point2D, String direction) {
         this.position = point2D;
         this.direction = direction;
-        try {
-            artAsset = new Image(new FileInputStream(filePath));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        artAsset = AssetRegistry.getInstance().getImage(filePath);
     }
 
     /**
@@ -52,12 +44,12 @@ public class WallFollowingEnemy extends Enemy {
 
         switch (direction) {
             case "U":
-                if (currentMapState[currentY - 1][currentX].getClass() != Ground.class) {
+                if (!isGround(currentX, currentY - 1)) {
                     hasToRedirect = true;
                     hasRedirected = false;
-                    if (currentMapState[currentY][currentX - 1].getClass() == Ground.class) {
+                    if (isGround(currentX - 1, currentY)) {
                         nextMove = new Point2D(-1, 0);
-                    } else if (currentMapState[currentY][currentX + 1].getClass() == Ground.class) {
+                    } else if (isGround(currentX + 1, currentY)) {
                         nextMove = new Point2D(1, 0);
                     } else {
                         return new Point2D(0, 1);
@@ -68,12 +60,12 @@ public class WallFollowingEnemy extends Enemy {
                 }
                 break;
             case "D":
-                if (currentMapState[currentY + 1][currentX].getClass() != Ground.class) {
+                if (!isGround(currentX, currentY + 1)) {
                     hasToRedirect = true;
                     hasRedirected = false;
-                    if (currentMapState[currentY][currentX + 1].getClass() == Ground.class) {
+                    if (isGround(currentX + 1, currentY)) {
                         nextMove = new Point2D(+1, 0);
-                    } else if (currentMapState[currentY][currentX - 1].getClass() == Ground.class) {
+                    } else if (isGround(currentX - 1, currentY)) {
                         nextMove = new Point2D(-1, 0);
                     } else {
                         return new Point2D(0, -1);
@@ -84,12 +76,12 @@ public class WallFollowingEnemy extends Enemy {
                 }
                 break;
             case "R":
-                if (currentMapState[currentY][currentX + 1].getClass() != Ground.class) {
+                if (!isGround(currentX + 1, currentY)) {
                     hasToRedirect = true;
                     hasRedirected = false;
-                    if (currentMapState[currentY + 1][currentX].getClass() == Ground.class) {
+                    if (isGround(currentX, currentY + 1)) {
                         nextMove = new Point2D(0, 1);
-                    } else if (currentMapState[currentY - 1][currentX].getClass() == Ground.class) {
+                    } else if (isGround(currentX, currentY - 1)) {
                         nextMove = new Point2D(0, -1);
                     } else {
                         return new Point2D(-1, 0);
@@ -100,12 +92,12 @@ public class WallFollowingEnemy extends Enemy {
                 }
                 break;
             case "L":
-                if (currentMapState[currentY][currentX - 1].getClass() != Ground.class) {
+                if (!isGround(currentX - 1, currentY)) {
                     hasToRedirect = true;
                     hasRedirected = false;
-                    if (currentMapState[currentY - 1][currentX].getClass() == Ground.class) {
+                    if (isGround(currentX, currentY - 1)) {
                         nextMove = new Point2D(0, -1);
-                    } else if (currentMapState[currentY + 1][currentX].getClass() == Ground.class) {
+                    } else if (isGround(currentX, currentY + 1)) {
                         nextMove = new Point2D(0, 1);
                     } else {
                         return new Point2D(1, 0);
@@ -141,16 +133,16 @@ public class WallFollowingEnemy extends Enemy {
      * @return The direction of the movement if it's executable, null otherwise.
      */
     private Point2D checkUpLeft(int currentX, int currentY) {
-        if (currentMapState[currentY - 1][currentX - 1].getClass() != Ground.class) {
+        if (!isGround(currentX - 1, currentY - 1)) {
             if (direction.equals("R")) {
-                if (currentMapState[currentY - 1][currentX].getClass() == Ground.class) {
+                if (isGround(currentX, currentY - 1)) {
                     return new Point2D(0, -1);
-                } else if (currentMapState[currentY][currentX - 1].getClass() == Ground.class) {
+                } else if (isGround(currentX - 1, currentY)) {
                     return new Point2D(-1, 0);
                 }
-            } else if (currentMapState[currentY][currentX - 1].getClass() == Ground.class) {
+            } else if (isGround(currentX - 1, currentY)) {
                 return new Point2D(-1, 0);
-            } else if (currentMapState[currentY - 1][currentX].getClass() == Ground.class) {
+            } else if (isGround(currentX, currentY - 1)) {
                 return new Point2D(0, -1);
             }
         }
@@ -174,16 +166,16 @@ public class WallFollowingEnemy extends Enemy {
      * @return The direction of the movement if it's executable, null otherwise.
      */
     private Point2D checkDownLeft(int currentX, int currentY) {
-        if (currentMapState[currentY + 1][currentX - 1].getClass() != Ground.class) {
+        if (!isGround(currentX - 1, currentY + 1)) {
             if (direction.equals("R")) {
-                if (currentMapState[currentY + 1][currentX].getClass() == Ground.class) {
+                if (isGround(currentX, currentY + 1)) {
                     return new Point2D(0, 1);
-                } else if (currentMapState[currentY][currentX - 1].getClass() == Ground.class) {
+                } else if (isGround(currentX - 1, currentY)) {
                     return new Point2D(-1, 0);
                 }
-            } else if (currentMapState[currentY][currentX - 1].getClass() == Ground.class) {
+            } else if (isGround(currentX - 1, currentY)) {
                 return new Point2D(-1, 0);
-            } else if (currentMapState[currentY + 1][currentX].getClass() == Ground.class) {
+            } else if (isGround(currentX, currentY + 1)) {
                 return new Point2D(0, 1);
             }
         }
@@ -207,16 +199,16 @@ public class WallFollowingEnemy extends Enemy {
      * @return The direction of the movement if it's executable, null otherwise.
      */
     private Point2D checkUpRight(int currentX, int currentY) {
-        if (currentMapState[currentY - 1][currentX + 1].getClass() != Ground.class) {
+        if (!isGround(currentX + 1, currentY - 1)) {
             if (direction.equals("L")) {
-                if (currentMapState[currentY - 1][currentX].getClass() == Ground.class) {
+                if (isGround(currentX, currentY - 1)) {
                     return new Point2D(0, -1);
-                } else if (currentMapState[currentY][currentX + 1].getClass() == Ground.class) {
+                } else if (isGround(currentX + 1, currentY)) {
                     return new Point2D(1, 0);
                 }
-            } else if (currentMapState[currentY][currentX + 1].getClass() == Ground.class) {
+            } else if (isGround(currentX + 1, currentY)) {
                 return new Point2D(1, 0);
-            } else if (currentMapState[currentY - 1][currentX].getClass() == Ground.class) {
+            } else if (isGround(currentX, currentY - 1)) {
                 return new Point2D(0, -1);
             }
         }
@@ -240,16 +232,16 @@ public class WallFollowingEnemy extends Enemy {
      * @return The direction of the movement if it's executable, null otherwise.
      */
     private Point2D checkDownRight(int currentX, int currentY) {
-        if (currentMapState[currentY + 1][currentX + 1].getClass() != Ground.class) {
+        if (!isGround(currentX + 1, currentY + 1)) {
             if (direction.equals("L")) {
-                if (currentMapState[currentY + 1][currentX].getClass() == Ground.class) {
+                if (isGround(currentX, currentY + 1)) {
                     return new Point2D(0, 1);
-                } else if (currentMapState[currentY][currentX + 1].getClass() == Ground.class) {
+                } else if (isGround(currentX + 1, currentY)) {
                     return new Point2D(1, 0);
                 }
-            } else if (currentMapState[currentY][currentX + 1].getClass() == Ground.class) {
+            } else if (isGround(currentX + 1, currentY)) {
                 return new Point2D(1, 0);
-            } else if (currentMapState[currentY + 1][currentX].getClass() == Ground.class) {
+            } else if (isGround(currentX, currentY + 1)) {
                 return new Point2D(0, 1);
             }
         }
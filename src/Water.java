@@ -1,8 +1,5 @@
 import javafx.scene.image.Image;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-
 /**
  * This Class models a Water Cell.
  *
@@ -20,11 +17,7 @@ public class Water extends Interactable {
      */
     public Water() {
         this.isPassable = true;
-        try {
-            artAsset = new Image(new FileInputStream(filePath));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        artAsset = AssetRegistry.getInstance().getImage(filePath);
     }
 
     /**
@@ -65,11 +58,6 @@ public class Water extends Interactable {
      */
     @Override
     public boolean playerHasItem() {
-        for (Item item : Map.getInstance().getPlayer().getInventory()) {
-            if (item.getClass() == WaterBoots.class) {
-                return true;
-            }
-        }
-        return false;
+        return Map.getInstance().getPlayer().hasWaterBoots();
     }
 }